@@ -4,21 +4,45 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
+import utils.CircuitBreaker;
 import utils.ConfigReader;
+import utils.RetryContext;
+import utils.RetryMetrics;
+
+import java.util.Arrays;
 
 public class RetryAnalyzer implements IRetryAnalyzer {
     private static final Logger logger = LogManager.getLogger(RetryAnalyzer.class);
     private int retryCount = 0;
-    private static final int MAX_RETRY_COUNT = ConfigReader.getIntValue("max.retry.count", 2);
 
     @Override
     public boolean retry(ITestResult result) {
-        if (retryCount < MAX_RETRY_COUNT) {
-            retryCount++;
-            logger.info("Retrying test " + result.getName() + " for " + retryCount + " time");
-            return true;
+        String testKey = testKey(result);
+        int maxRetryCount = ConfigReader.current().getMaxRetryCount();
+        if (CircuitBreaker.isOpenCircuit(result.getThrowable())) {
+            logger.info("Test " + result.getName() + " failed fast on an open circuit breaker, not rerunning");
+        } else if (retryCount < maxRetryCount) {
+            // Reruns draw from the same budget as the retries inside the test
+            boolean allowed = RetryContext.tryAcquireRerun(testKey);
+            RetryMetrics.recordRerun(allowed);
+            if (allowed) {
+                retryCount++;
+                logger.info("Retrying test " + result.getName() + " for " + retryCount + " time");
+                return true;
+            }
+            logger.info("Test " + result.getName() + " has used up its retry budget, not rerunning");
+        } else {
+            logger.info("Test " + result.getName() + " has reached maximum retry count: " + maxRetryCount);
         }
-        logger.info("Test " + result.getName() + " has reached maximum retry count: " + MAX_RETRY_COUNT);
+        RetryContext.complete(testKey);
         return false;
     }
+
+    /**
+     * Identifies a test invocation (class, method and parameters) across reruns.
+     */
+    public static String testKey(ITestResult result) {
+        return result.getTestClass().getName() + "." + result.getMethod().getMethodName()
+                + Arrays.toString(result.getParameters());
+    }
 }
@@ -7,6 +7,8 @@ import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
+import utils.CircuitBreaker;
+import utils.ConfigReader;
 import utils.ExtentReportManager;
 import utils.ScreenshotUtils;
 import utils.SmartElementFinder;
@@ -18,6 +20,7 @@ public class TestListener implements ITestListener {
     @Override
     public void onStart(ITestContext context) {
         logger.info("Test Suite started: " + context.getName());
+        ConfigReader.initialize();
         ExtentReportManager.initReports();
     }
 
@@ -70,7 +73,9 @@ public class TestListener implements ITestListener {
     }
 
     private void analyzeFailure(Throwable throwable) {
-        if (throwable instanceof SmartElementFinder.ElementNotFoundException) {
+        if (CircuitBreaker.isOpenCircuit(throwable)) {
+            logger.error("Failed fast on an open circuit breaker. The target environment is failing repeatedly.");
+        } else if (throwable instanceof SmartElementFinder.ElementNotFoundException) {
             logger.error("Element location failure. Self-healing was attempted but unsuccessful.");
         } else if (throwable instanceof org.openqa.selenium.TimeoutException) {
             logger.error("Timeout occurred. This might indicate performance issues or invalid waits.");
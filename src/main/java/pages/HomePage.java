@@ -8,15 +8,15 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.ExceptionHandler;
 import utils.SmartElementFinder;
+import utils.SmartWait;
 import java.time.Duration;
 
 public class HomePage {
     private static final Logger logger = LogManager.getLogger(HomePage.class);
     private final WebDriver driver;
-    private final WebDriverWait wait;
+    private final SmartWait wait;
 
     @FindBy(id = "nav-logo-sprites")
     private WebElement amazonLogo;
@@ -29,7 +29,7 @@ public class HomePage {
 
     public HomePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.wait = new SmartWait(driver, Duration.ofSeconds(10));
         PageFactory.initElements(driver, this);
         logger.debug("HomePage initialized");
     }
@@ -37,7 +37,8 @@ public class HomePage {
     public boolean isLogoDisplayed() throws Exception {
         logger.debug("Checking logo visibility");
         return ExceptionHandler.handleException(driver, "check logo visibility", d -> {
-            WebElement logo = SmartElementFinder.findElement(d, By.id("nav-logo-sprites"), "Amazon Logo");
+            WebElement logo = SmartElementFinder.findAnyElement(d, "Amazon Logo",
+                    By.id("nav-logo-sprites"), By.cssSelector("#nav-logo a"));
             wait.until(ExpectedConditions.visibilityOf(logo));
             return logo.isDisplayed();
         });
@@ -73,7 +74,8 @@ public class HomePage {
 
         return ExceptionHandler.handleException(driver, "perform search", d -> {
             WebElement searchInput = SmartElementFinder.findElement(d, By.id("twotabsearchtextbox"), "Search Box");
-            WebElement searchBtn = SmartElementFinder.findElement(d, By.id("nav-search-submit-button"), "Search Button");
+            WebElement searchBtn = SmartElementFinder.findAnyElement(d, "Search Button",
+                    By.id("nav-search-submit-button"), By.cssSelector("#nav-search-bar-form input[type='submit']"));
 
             wait.until(ExpectedConditions.elementToBeClickable(searchInput));
             searchInput.clear();
@@ -1,30 +1,48 @@
 package pages;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.AnyOfCondition;
+import utils.PageReadiness;
+import utils.ResourceBlocker;
+import utils.SmartWait;
 import java.time.Duration;
 
 public class ProductDetailsPage {
+    private static final Logger logger = LogManager.getLogger(ProductDetailsPage.class);
     private final WebDriver driver;
-    private final WebDriverWait wait;
+    private final SmartWait wait;
 
     @FindBy(id = "productTitle")
     private WebElement productTitle;
 
-    @FindBy(css = ".a-price .a-offscreen")
-    private WebElement productPrice;
-
     @FindBy(id = "add-to-cart-button")
     private WebElement addToCartButton;
 
     public ProductDetailsPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.wait = new SmartWait(driver, Duration.ofSeconds(10));
         PageFactory.initElements(driver, this);
+        waitForPageLoad();
+        ResourceBlocker.reportPage(driver, "ProductDetailsPage");
+    }
+
+    private void waitForPageLoad() {
+        try {
+            // The page is built right after the click, while the results page may still be showing
+            wait.until(AnyOfCondition.presenceOfAny("ProductDetailsPage.load",
+                    By.id("productTitle"), By.id("dp")));
+        } catch (TimeoutException e) {
+            logger.warn("Product details did not appear in time, continuing: {}", e.getMessage());
+        }
+        PageReadiness.waitUntilStable(driver, "ProductDetailsPage");
     }
 
     public String getProductTitle() {
@@ -32,7 +50,13 @@ public class ProductDetailsPage {
     }
 
     public String getProductPrice() {
-        return wait.until(ExpectedConditions.visibilityOf(productPrice)).getText();
+        // Amazon renders the price in different blocks depending on the offer layout
+        return wait.until(AnyOfCondition.presenceOfAny("ProductDetailsPage.price",
+                By.cssSelector(".a-price .a-offscreen"),
+                By.cssSelector("#corePrice_feature_div .a-price-whole"),
+                By.id("priceblock_ourprice"),
+                By.id("priceblock_dealprice")))
+            .getElement().getAttribute("textContent").trim();
     }
 
     public boolean isAddToCartButtonVisible() {
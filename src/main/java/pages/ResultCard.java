@@ -0,0 +1,111 @@
+package pages;
+
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.Map;
+
+/**
+ * Immutable view of one search result card, extracted together with all other cards in a
+ * single script call by {@link SearchResultsPage#getResultCards()}.
+ */
+public final class ResultCard {
+    private final int position;
+    private final String asin;
+    private final String title;
+    private final String href;
+    private final String price;
+    private final boolean sponsored;
+    private final boolean visible;
+    private final Rectangle boundingBox;
+    private final WebElement link;
+
+    private ResultCard(int position, String asin, String title, String href, String price,
+                       boolean sponsored, boolean visible, Rectangle boundingBox, WebElement link) {
+        this.position = position;
+        this.asin = asin;
+        this.title = title;
+        this.href = href;
+        this.price = price;
+        this.sponsored = sponsored;
+        this.visible = visible;
+        this.boundingBox = boundingBox;
+        this.link = link;
+    }
+
+    static ResultCard fromScriptResult(int position, Map<?, ?> values) {
+        Rectangle box = new Rectangle(
+                toInt(values.get("x")), toInt(values.get("y")),
+                toInt(values.get("height")), toInt(values.get("width")));
+        return new ResultCard(position,
+                toStringValue(values.get("asin")),
+                toStringValue(values.get("title")),
+                toStringValue(values.get("href")),
+                toStringValue(values.get("price")),
+                Boolean.TRUE.equals(values.get("sponsored")),
+                Boolean.TRUE.equals(values.get("visible")),
+                box,
+                values.get("link") instanceof WebElement ? (WebElement) values.get("link") : null);
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? (int) Math.round(((Number) value).doubleValue()) : 0;
+    }
+
+    private static String toStringValue(Object value) {
+        return value == null ? "" : value.toString().trim();
+    }
+
+    /**
+     * True when the card has a usable title, i.e. not empty and not just a price/number.
+     */
+    public boolean hasValidTitle() {
+        return !title.isEmpty() && !title.matches("^[\\d,.$]+$");
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getAsin() {
+        return asin;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getHref() {
+        return href;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public boolean isSponsored() {
+        return sponsored;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public Rectangle getBoundingBox() {
+        return boundingBox;
+    }
+
+    /**
+     * Product link element, captured in the same script call; may be {@code null} or stale
+     * once the page changes.
+     */
+    public WebElement getLink() {
+        return link;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultCard{#%d, asin=%s, title='%s', price=%s, sponsored=%s, visible=%s}",
+                position, asin, title, price, sponsored, visible);
+    }
+}
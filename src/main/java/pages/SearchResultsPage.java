@@ -4,20 +4,67 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.AnyOfCondition;
+import utils.PageReadiness;
+import utils.ResourceBlocker;
+import utils.TextProbe;
+import utils.SmartWait;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class SearchResultsPage {
-    private final WebDriver driver;
-    private final WebDriverWait wait;
+    private static final int SCROLL_QUIET_MILLIS = 150;
+
+    // Common no-results messages, matched case-insensitively against visible text
+    private static final List<String> NO_RESULTS_INDICATORS = Arrays.asList(
+            "no results for",
+            "no search results",
+            "try checking your spelling",
+            "did not match any products",
+            "0 results for",
+            "we could not find any results");
+    private static final List<String> NO_RESULTS_SCOPES = Arrays.asList("#search", ".s-main-slot");
 
-    // Multiple locator strategies for search results
-    @FindBy(css = ".s-result-item")
-    private List<WebElement> productList;
+    // Extracts every result card plus the no-results state in one round trip
+    private static final String RESULT_CARDS_SCRIPT =
+            "function visible(el) {"
+            + "  if (!el || !el.getClientRects().length) return false;"
+            + "  var style = window.getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none';"
+            + "}"
+            + "function text(el) { return el ? (el.textContent || '').replace(/\\s+/g, ' ').trim() : ''; }"
+            + "var noResults = Array.prototype.some.call(document.querySelectorAll("
+            + "  \".s-no-result-search-message, .s-no-results-result, [data-component-type='no-results-search-message']\"), visible);"
+            + "var nodes = document.querySelectorAll(\"[data-component-type='s-search-result'], .s-result-item[data-asin]\");"
+            + "var seen = {}, cards = [];"
+            + "for (var i = 0; i < nodes.length; i++) {"
+            + "  var card = nodes[i], asin = card.getAttribute('data-asin');"
+            + "  if (!asin || seen[asin]) continue;"
+            + "  seen[asin] = true;"
+            + "  var heading = card.querySelector('h2');"
+            + "  var link = (heading && (heading.closest('a') || heading.querySelector('a')))"
+            + "    || card.querySelector(\"a.a-link-normal[href*='/dp/'], .a-text-normal[href]\");"
+            + "  var rect = card.getBoundingClientRect();"
+            + "  cards.push({"
+            + "    asin: asin,"
+            + "    title: text(heading) || text(card.querySelector('.a-text-normal')),"
+            + "    href: link ? link.href : '',"
+            + "    price: text(card.querySelector('.a-price .a-offscreen')),"
+            + "    sponsored: !!card.querySelector('.puis-sponsored-label-text, .s-sponsored-label-text')"
+            + "      || /sponsored/i.test(text(card.querySelector('.puis-label-popover-default, .s-label-popover-default'))),"
+            + "    visible: visible(card),"
+            + "    x: rect.left + window.scrollX, y: rect.top + window.scrollY, width: rect.width, height: rect.height,"
+            + "    link: link"
+            + "  });"
+            + "}"
+            + "return { noResults: noResults, cards: cards };";
 
-    @FindBy(css = ".s-search-results .sg-col-inner")
-    private List<WebElement> altProductList;
+    private final WebDriver driver;
+    private final SmartWait wait;
+    private int matchedSelectorIndex = -1;
 
     // Multiple locator strategies for product links
     @FindBy(css = "h2 .a-link-normal")
@@ -34,9 +81,10 @@ public class SearchResultsPage {
 
     public SearchResultsPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        this.wait = new SmartWait(driver, Duration.ofSeconds(30));
         PageFactory.initElements(driver, this);
         waitForPageLoad();
+        ResourceBlocker.reportPage(driver, "SearchResultsPage");
     }
 
     private void waitForPageLoad() {
@@ -57,35 +105,67 @@ public class SearchResultsPage {
                 By.cssSelector(".s-no-results-result") // For no results message
             };
 
-            boolean resultsFound = false;
-            for (By selector : selectors) {
-                try {
-                    wait.until(ExpectedConditions.presenceOfElementLocated(selector));
-                    resultsFound = true;
-                    break;
-                } catch (TimeoutException ignored) {}
-            }
-
-            if (!resultsFound) {
-                throw new TimeoutException("Search results not found with any selector");
+            // All selectors are evaluated in one script per poll instead of one full wait each
+            AnyOfCondition.Match match;
+            try {
+                match = wait.until(AnyOfCondition.presenceOfAny("SearchResultsPage.results", selectors));
+            } catch (TimeoutException e) {
+                throw new TimeoutException("Search results not found with any selector", e);
             }
+            matchedSelectorIndex = match.getIndex();
 
-            // Additional wait for dynamic content
-            Thread.sleep(2000);
+            // Wait for dynamic content to settle instead of sleeping a fixed time
+            PageReadiness.waitUntilStable(driver, "SearchResultsPage");
         } catch (Exception e) {
             System.out.println("Error during page load wait: " + e.getMessage());
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Index of the selector that satisfied the page load wait, for diagnostics.
+     */
+    public int getMatchedSelectorIndex() {
+        return matchedSelectorIndex;
+    }
+
+    /**
+     * Extracts all result cards (ASIN, title, link, price, sponsored flag, visibility and
+     * bounding box) with a single script call.
+     */
+    public List<ResultCard> getResultCards() {
+        return takeSnapshot().cards;
+    }
+
+    private ResultsSnapshot takeSnapshot() {
+        Object result = ((JavascriptExecutor) driver).executeScript(RESULT_CARDS_SCRIPT);
+        ResultsSnapshot snapshot = new ResultsSnapshot();
+        if (result instanceof Map) {
+            Map<?, ?> values = (Map<?, ?>) result;
+            snapshot.noResultsVisible = Boolean.TRUE.equals(values.get("noResults"));
+            Object cards = values.get("cards");
+            if (cards instanceof List) {
+                int position = 0;
+                for (Object card : (List<?>) cards) {
+                    snapshot.cards.add(ResultCard.fromScriptResult(position++, (Map<?, ?>) card));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private ResultCard findFirstProductCard() {
+        for (ResultCard card : getResultCards()) {
+            if (card.isVisible() && card.hasValidTitle()) {
+                return card;
+            }
+        }
+        return null;
+    }
+
     public int getProductCount() {
         try {
-            if (!productList.isEmpty()) {
-                return productList.size();
-            } else if (!altProductList.isEmpty()) {
-                return altProductList.size();
-            }
-            return 0;
+            return getResultCards().size();
         } catch (Exception e) {
             System.out.println("Error getting product count: " + e.getMessage());
             return 0;
@@ -94,14 +174,18 @@ public class SearchResultsPage {
 
     public ProductDetailsPage clickFirstProduct() throws Exception {
         try {
-            // Try different strategies to find clickable product
-            WebElement productLink = findClickableProduct();
+            // Use the link captured with the first product card, fall back to probing the page
+            ResultCard firstCard = findFirstProductCard();
+            WebElement productLink = firstCard != null ? firstCard.getLink() : null;
+            if (productLink == null) {
+                productLink = findClickableProduct();
+            }
             if (productLink != null) {
                 // Scroll into view and wait for it to be stable
                 ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", productLink);
-                Thread.sleep(1000);
+                PageReadiness.waitForDomQuiet(driver, "SearchResultsPage.scrollToProduct", SCROLL_QUIET_MILLIS);
 
-                String productName = productLink.getText();
+                String productName = firstCard != null ? firstCard.getTitle() : productLink.getText();
                 System.out.println("Attempting to click product: " + productName);
 
                 try {
@@ -146,7 +230,8 @@ public class SearchResultsPage {
                                 // Scroll element into view
                                 ((JavascriptExecutor) driver)
                                     .executeScript("arguments[0].scrollIntoView({block: 'center'});", link);
-                                Thread.sleep(500);
+                                PageReadiness.waitForDomQuiet(driver, "SearchResultsPage.scrollToCandidate",
+                                        SCROLL_QUIET_MILLIS);
                                 
                                 if (link.isEnabled() && wait.until(ExpectedConditions.elementToBeClickable(link)) != null) {
                                     return link;
@@ -178,17 +263,8 @@ public class SearchResultsPage {
 
     public boolean isResultsDisplayed() {
         try {
-            // First check for no results message
-            try {
-                List<WebElement> noResultsElements = driver.findElements(
-                    By.cssSelector(".s-no-result-search-message, .s-no-results-result"));
-                if (!noResultsElements.isEmpty() && noResultsElements.get(0).isDisplayed()) {
-                    return false;
-                }
-            } catch (Exception ignored) {}
-
-            // Then check for actual results
-            return !productList.isEmpty() || !altProductList.isEmpty();
+            ResultsSnapshot snapshot = takeSnapshot();
+            return !snapshot.noResultsVisible && !snapshot.cards.isEmpty();
         } catch (Exception e) {
             System.out.println("Error checking results display: " + e.getMessage());
             return false;
@@ -197,41 +273,15 @@ public class SearchResultsPage {
     
     public boolean hasNoResultsMessage() {
         try {
-            // Check for various no results indicators
-            String pageSource = driver.getPageSource().toLowerCase();
-            
-            // Common no-results messages and elements
-            String[] noResultsIndicators = {
-                "no results for",
-                "no search results",
-                "try checking your spelling",
-                "did not match any products",
-                "0 results for",
-                "we could not find any results"
-            };
-            
-            // Check for the presence of any no-results message
-            for (String indicator : noResultsIndicators) {
-                if (pageSource.contains(indicator)) {
-                    return true;
-                }
+            // Match the indicators against the visible text inside the browser instead of
+            // pulling the whole page source
+            TextProbe.ProbeResult probe = TextProbe.probe(driver, NO_RESULTS_SCOPES, NO_RESULTS_INDICATORS);
+            if (probe.isMatched()) {
+                return true;
             }
-            
-            // Check for specific no-results elements
-            By[] noResultsSelectors = {
-                By.cssSelector(".s-no-result-search-message"),
-                By.cssSelector(".s-no-results-result"),
-                By.cssSelector("[data-component-type='no-results-search-message']")
-            };
-            
-            for (By selector : noResultsSelectors) {
-                List<WebElement> elements = driver.findElements(selector);
-                if (!elements.isEmpty() && elements.get(0).isDisplayed()) {
-                    return true;
-                }
-            }
-            
-            return false;
+
+            // The card snapshot also covers the specific no-results elements
+            return takeSnapshot().noResultsVisible;
         } catch (Exception e) {
             System.out.println("Error checking for no results message: " + e.getMessage());
             return false;
@@ -240,74 +290,17 @@ public class SearchResultsPage {
 
     public String getFirstProductName() throws InterruptedException {
         try {
-            // Wait for search results to be present with any of our selectors
-            By[] productSelectors = {
-                By.cssSelector("h2 .a-link-normal"),
-                By.cssSelector(".s-result-item .a-text-normal"),
-                By.cssSelector(".s-result-item h2 a"),
-                By.cssSelector(".s-result-item .a-link-normal[href*='/dp/']")
-            };
-
-            WebElement productElement = null;
-            String productName = null;
-
-            // Try each selector until we find a valid product name
-            for (By selector : productSelectors) {
-                try {
-                    // Wait for elements to be present
-                    wait.until(ExpectedConditions.presenceOfElementLocated(selector));
-                    
-                    // Find all elements with this selector
-                    List<WebElement> elements = driver.findElements(selector);
-                    
-                    // Try each element until we find one with valid text
-                    for (WebElement element : elements) {
-                        try {
-                            if (element.isDisplayed()) {
-                                // Try different text extraction methods
-                                String text = element.getText().trim();
-                                if (text.isEmpty()) {
-                                    text = element.getAttribute("textContent");
-                                }
-                                if (text.isEmpty()) {
-                                    text = (String) ((JavascriptExecutor) driver)
-                                        .executeScript("return arguments[0].textContent.trim()", element);
-                                }
-                                
-                                // Validate the text content
-                                if (text != null && !text.isEmpty() && !text.matches("^[\\d,.$]+$")) {
-                                    productElement = element;
-                                    productName = text;
-                                    break;
-                                }
-                            }
-                        } catch (StaleElementReferenceException e) {
-                            // Element became stale, continue to next element
-                            continue;
-                        }
-                    }
-                    
-                    if (productName != null) {
-                        break;
-                    }
-                } catch (Exception e) {
-                    System.out.println("Error with selector " + selector + ": " + e.getMessage());
-                }
-            }
-
-            if (productElement == null || productName == null) {
-                throw new NoSuchElementException("Could not find any product with valid text");
-            }
-
-            // Make sure the element is actually interactable
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", productElement);
-            Thread.sleep(500);
-            wait.until(ExpectedConditions.elementToBeClickable(productElement));
-
-            return productName.trim();
-        } catch (Exception e) {
+            // Poll the card snapshot until a visible product with a usable title shows up
+            ResultCard card = wait.until(d -> findFirstProductCard());
+            return card.getTitle();
+        } catch (TimeoutException e) {
             System.out.println("Error while getting first product name: " + e.getMessage());
-            throw e;
+            throw new NoSuchElementException("Could not find any product with valid text");
         }
     }
+
+    private static final class ResultsSnapshot {
+        private final List<ResultCard> cards = new ArrayList<>();
+        private boolean noResultsVisible;
+    }
 }
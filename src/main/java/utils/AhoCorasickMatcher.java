@@ -0,0 +1,125 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Multi-pattern matcher (Aho-Corasick) that finds any of a fixed set of phrases in a single
+ * pass over the input, independent of the number of phrases. Instances are immutable and
+ * can be shared between threads.
+ */
+public final class AhoCorasickMatcher {
+    private final List<String> patterns;
+    private final boolean ignoreCase;
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failure = new ArrayList<>();
+    // Index of the longest pattern ending at each state, or -1: the state's own pattern if it
+    // completes one, else the one inherited through its failure link (the longest proper suffix)
+    private final List<Integer> output = new ArrayList<>();
+
+    public AhoCorasickMatcher(List<String> patterns, boolean ignoreCase) {
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+        this.ignoreCase = ignoreCase;
+        build();
+    }
+
+    public AhoCorasickMatcher(boolean ignoreCase, String... patterns) {
+        this(Arrays.asList(patterns), ignoreCase);
+    }
+
+    private void build() {
+        newState();
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = normalize(pattern.charAt(i));
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (output.get(state) < 0) {
+                output.set(state, p);
+            }
+        }
+
+        // Breadth-first construction of failure links
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            failure.set(child, 0);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure.get(state);
+                while (fallback > 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure.get(fallback);
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                int childFailure = target != null && target != child ? target : 0;
+                failure.set(child, childFailure);
+                if (output.get(child) < 0) {
+                    output.set(child, output.get(childFailure));
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newState() {
+        transitions.add(new HashMap<>());
+        failure.add(0);
+        output.add(-1);
+        return transitions.size() - 1;
+    }
+
+    private char normalize(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    /**
+     * Returns the pattern whose occurrence ends first in the text, or {@code null} if none occurs.
+     */
+    public String findFirst(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, normalize(text.charAt(i)));
+            int match = output.get(state);
+            if (match >= 0) {
+                return patterns.get(match);
+            }
+        }
+        return null;
+    }
+
+    public boolean containsAny(CharSequence text) {
+        return findFirst(text) != null;
+    }
+
+    private int step(int state, char c) {
+        Integer next = transitions.get(state).get(c);
+        while (next == null && state > 0) {
+            state = failure.get(state);
+            next = transitions.get(state).get(c);
+        }
+        return next == null ? 0 : next;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+}
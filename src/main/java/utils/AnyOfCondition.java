@@ -0,0 +1,197 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Wait condition that evaluates several candidate locators in a single {@code executeScript}
+ * per poll and reports which one matched first (in declaration order). Replaces chains of
+ * sequential {@code presenceOfElementLocated} waits that each burn a full timeout.
+ */
+public class AnyOfCondition implements ExpectedCondition<AnyOfCondition.Match> {
+    private static final Logger logger = LogManager.getLogger(AnyOfCondition.class);
+
+    static final String LOCATE_FUNCTION =
+            "function __seLocate(strategy, value) {"
+            + "  switch (strategy) {"
+            + "    case 'id': var byId = document.getElementById(value); return byId ? [byId] : [];"
+            + "    case 'css': return Array.prototype.slice.call(document.querySelectorAll(value));"
+            + "    case 'className': return Array.prototype.slice.call(document.getElementsByClassName(value));"
+            + "    case 'name': return Array.prototype.slice.call(document.getElementsByName(value));"
+            + "    case 'tagName': return Array.prototype.slice.call(document.getElementsByTagName(value));"
+            + "    case 'xpath':"
+            + "      var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      var nodes = []; for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }"
+            + "      return nodes;"
+            + "    case 'linkText': case 'partialLinkText':"
+            + "      return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {"
+            + "        var text = (a.innerText || a.textContent || '').trim();"
+            + "        return strategy === 'linkText' ? text === value : text.indexOf(value) >= 0; });"
+            + "  }"
+            + "  return [];"
+            + "}"
+            + "function __seVisible(el) {"
+            + "  if (!el.getClientRects().length) return false;"
+            + "  var style = window.getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none' && style.opacity !== '0';"
+            + "}";
+
+    private static final String ANY_OF_SCRIPT = LOCATE_FUNCTION
+            + "var locators = arguments[0], requireVisible = arguments[1];"
+            + "for (var i = 0; i < locators.length; i++) {"
+            + "  var found;"
+            + "  try { found = __seLocate(locators[i][0], locators[i][1]); } catch (e) { continue; }"
+            + "  for (var j = 0; j < found.length; j++) {"
+            + "    if (!requireVisible || __seVisible(found[j])) return [i, found[j]];"
+            + "  }"
+            + "}"
+            + "return null;";
+
+    private static final Map<String, AtomicLongArray> matchCounters = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final List<By> locators;
+    private final List<List<String>> encodedLocators;
+    private final boolean requireVisible;
+
+    private AnyOfCondition(String name, boolean requireVisible, By... locators) {
+        if (locators.length == 0) {
+            throw new IllegalArgumentException("At least one locator is required");
+        }
+        this.name = name;
+        this.requireVisible = requireVisible;
+        this.locators = Collections.unmodifiableList(Arrays.asList(locators));
+        this.encodedLocators = new ArrayList<>(locators.length);
+        for (By locator : locators) {
+            encodedLocators.add(encode(locator));
+        }
+    }
+
+    public static AnyOfCondition presenceOfAny(String name, By... locators) {
+        return new AnyOfCondition(name, false, locators);
+    }
+
+    public static AnyOfCondition visibilityOfAny(String name, By... locators) {
+        return new AnyOfCondition(name, true, locators);
+    }
+
+    @Override
+    public Match apply(WebDriver driver) {
+        Object result = ((JavascriptExecutor) driver).executeScript(ANY_OF_SCRIPT, encodedLocators, requireVisible);
+        if (!(result instanceof List)) {
+            return null;
+        }
+        List<?> values = (List<?>) result;
+        int index = ((Number) values.get(0)).intValue();
+        recordMatch(index);
+        logger.debug("{} matched locator #{}: {}", name, index, locators.get(index));
+        return new Match(index, locators.get(index), (WebElement) values.get(1));
+    }
+
+    private void recordMatch(int index) {
+        matchCounters.computeIfAbsent(name, key -> new AtomicLongArray(locators.size()))
+                .incrementAndGet(Math.min(index, locators.size() - 1));
+    }
+
+    /**
+     * Splits a {@link By} into the strategy/value pair understood by the locate script,
+     * based on the stable {@code By.toString()} format ("By.cssSelector: .foo").
+     */
+    static List<String> encode(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            throw new IllegalArgumentException("Unsupported locator for script evaluation: " + description);
+        }
+        String strategy = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+        if ("cssSelector".equals(strategy)) {
+            strategy = "css";
+        }
+        return Arrays.asList(strategy, value);
+    }
+
+    /**
+     * Inverse of {@link #encode(By)}.
+     */
+    static By decode(String strategy, String value) {
+        switch (strategy) {
+            case "id":
+                return By.id(value);
+            case "css":
+                return By.cssSelector(value);
+            case "xpath":
+                return By.xpath(value);
+            case "className":
+                return By.className(value);
+            case "name":
+                return By.name(value);
+            case "tagName":
+                return By.tagName(value);
+            case "linkText":
+                return By.linkText(value);
+            case "partialLinkText":
+                return By.partialLinkText(value);
+            default:
+                throw new IllegalArgumentException("Unknown locator strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Returns, per named condition, how often each locator index produced the match.
+     */
+    public static Map<String, long[]> getMatchStatistics() {
+        Map<String, long[]> stats = new TreeMap<>();
+        matchCounters.forEach((key, counters) -> {
+            long[] copy = new long[counters.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = counters.get(i);
+            }
+            stats.put(key, copy);
+        });
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + (requireVisible ? "visibility" : "presence") + " of any of " + locators;
+    }
+
+    public static final class Match {
+        private final int index;
+        private final By locator;
+        private final WebElement element;
+
+        private Match(int index, By locator, WebElement element) {
+            this.index = index;
+            this.locator = locator;
+            this.element = element;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+    }
+}
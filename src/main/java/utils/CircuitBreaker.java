@@ -0,0 +1,234 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker per action and host. Outcomes of the last {@code circuit.breaker.window.size}
+ * calls are kept in a sliding window; once at least {@code circuit.breaker.min.calls} are
+ * recorded and the failure rate reaches {@code circuit.breaker.failure.rate} percent, the
+ * breaker opens and calls fail fast with {@link OpenException} instead of walking through
+ * retries, healing and reruns against a degraded site. After {@code circuit.breaker.open.seconds}
+ * a single probe call is let through (half-open) and its outcome closes or re-opens the breaker.
+ */
+public final class CircuitBreaker {
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private static final List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+    private static volatile String defaultHost;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean[] window;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    CircuitBreaker(String name, int windowSize, int minCalls, int failureRatePercent, long openSeconds) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minCalls = Math.max(1, Math.min(minCalls, window.length));
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanValue("circuit.breaker.enabled", true);
+    }
+
+    /**
+     * Breaker for an action against the application under test. The host comes from
+     * {@code app.url} rather than the live session so that checking it costs no round trip.
+     */
+    public static CircuitBreaker forAction(String action) {
+        return breakers.computeIfAbsent(action + "@" + host(), key -> new CircuitBreaker(key,
+                ConfigReader.getIntValue("circuit.breaker.window.size", 20),
+                ConfigReader.getIntValue("circuit.breaker.min.calls", 5),
+                ConfigReader.getIntValue("circuit.breaker.failure.rate", 50),
+                ConfigReader.getIntValue("circuit.breaker.open.seconds", 30)));
+    }
+
+    private static String host() {
+        String host = defaultHost;
+        if (host == null) {
+            String url = ConfigReader.getValue("app.url", "");
+            try {
+                host = URI.create(url).getHost();
+            } catch (IllegalArgumentException e) {
+                host = null;
+            }
+            host = host == null ? url : host;
+            defaultHost = host;
+        }
+        return host;
+    }
+
+    /**
+     * Lets the call through or throws {@link OpenException}. A call that is let through must
+     * end with {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public void acquirePermission() {
+        if (!isEnabled()) {
+            return;
+        }
+        State from;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return;
+            }
+            if ((state == State.OPEN && System.nanoTime() - openedAt < openNanos) || probeInFlight) {
+                rejected.incrementAndGet();
+                long remainingNanos = Math.max(0, openNanos - (System.nanoTime() - openedAt));
+                throw new OpenException(name, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            }
+            from = state;
+            state = State.HALF_OPEN;
+            probeInFlight = true;
+        }
+        if (from != State.HALF_OPEN) {
+            transition(from, State.HALF_OPEN, "letting one probe call through");
+        }
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * Ends a call whose outcome says nothing about the environment, e.g. a failed assertion.
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    private void record(boolean failed) {
+        if (!isEnabled()) {
+            return;
+        }
+        State from;
+        State to;
+        String reason;
+        synchronized (this) {
+            from = state;
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                resetWindow();
+                if (failed) {
+                    state = State.OPEN;
+                    openedAt = System.nanoTime();
+                } else {
+                    state = State.CLOSED;
+                }
+                reason = failed ? "probe call failed" : "probe call succeeded";
+            } else {
+                if (recorded == window.length && window[position]) {
+                    failures--;
+                }
+                window[position] = failed;
+                position = (position + 1) % window.length;
+                recorded = Math.min(recorded + 1, window.length);
+                if (failed) {
+                    failures++;
+                }
+                if (state == State.CLOSED && recorded >= minCalls && failures * 100 >= failureRatePercent * recorded) {
+                    state = State.OPEN;
+                    openedAt = System.nanoTime();
+                }
+                reason = String.format("%d of the last %d calls failed", failures, recorded);
+            }
+            to = state;
+        }
+        if (from != to) {
+            transition(from, to, reason);
+        }
+    }
+
+    private void resetWindow() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State from, State to, String reason) {
+        String message = String.format("Circuit breaker [%s] %s -> %s: %s", name, from, to, reason);
+        transitions.add(message);
+        if (to == State.OPEN) {
+            logger.warn(message);
+        } else {
+            logger.info(message);
+        }
+        // Shown on the test whose call caused the transition
+        ReportTest test = ExtentReportManager.getTest();
+        if (test != null) {
+            test.warning(message);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static List<String> getTransitions() {
+        synchronized (transitions) {
+            return new ArrayList<>(transitions);
+        }
+    }
+
+    public static void logSummary() {
+        breakers.values().forEach(breaker -> {
+            if (breaker.rejected.get() > 0 || breaker.getState() != State.CLOSED) {
+                logger.info("Circuit breaker [{}]: state={}, rejected calls={}",
+                        breaker.name, breaker.getState(), breaker.rejected.get());
+            }
+        });
+        logger.info("Circuit breaker transitions: {}", getTransitions().size());
+    }
+
+    /**
+     * Whether the failure was caused by an open circuit, anywhere in the cause chain.
+     */
+    public static boolean isOpenCircuit(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof OpenException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class OpenException extends FrameworkException {
+        public OpenException(String breakerName, long retryInSeconds) {
+            super(String.format("Circuit breaker [%s] is open after repeated failures; failing fast "
+                    + "(next probe in ~%ds)", breakerName, retryInSeconds));
+        }
+    }
+}
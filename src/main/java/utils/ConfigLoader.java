@@ -0,0 +1,205 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the configuration layers, lowest precedence first:
+ * <ol>
+ *     <li>defaults - {@code config.properties}</li>
+ *     <li>environment - {@code <env>.properties}, {@code env} from {@code -Denv} or {@code ENV}, default dev</li>
+ *     <li>environment variables - {@code FW_APP_URL} overrides {@code app.url}</li>
+ *     <li>system properties (applied by {@link ConfigSnapshot})</li>
+ * </ol>
+ * Files come from {@code -Dconfig.dir} / {@code CONFIG_DIR} when set, otherwise from
+ * {@code config/} on the classpath (so packaged tests work from any working directory), falling
+ * back to {@code src/test/resources/config}. The files and {@code config.schema.properties} are
+ * read in parallel.
+ */
+final class ConfigLoader {
+    private static final Logger logger = LogManager.getLogger(ConfigLoader.class);
+    private static final String CLASSPATH_FOLDER = "config/";
+    private static final String SOURCE_FOLDER = "src/test/resources/config";
+    private static final String ENV_PREFIX = "FW_";
+    static final String DEFAULTS_FILE = "config.properties";
+    static final String SCHEMA_FILE = "config.schema.properties";
+
+    private ConfigLoader() {
+        // Private constructor to prevent instantiation
+    }
+
+    static Layers load() {
+        long start = System.nanoTime();
+        Path dir = configuredDirectory();
+        String env = firstNonBlank(System.getProperty("env"), System.getenv("ENV"), "dev");
+
+        CompletableFuture<Source> defaults = CompletableFuture.supplyAsync(() -> read(dir, DEFAULTS_FILE));
+        CompletableFuture<Source> environment = CompletableFuture.supplyAsync(() -> read(dir, env + ".properties"));
+        CompletableFuture<Source> schemaSource = CompletableFuture.supplyAsync(() -> read(dir, SCHEMA_FILE));
+        Source defaultsLayer;
+        Source environmentLayer;
+        Source schemaLayer;
+        try {
+            defaultsLayer = defaults.join();
+            environmentLayer = environment.join();
+            schemaLayer = schemaSource.join();
+        } catch (CompletionException e) {
+            throw new FrameworkException("Failed to load configuration", e.getCause());
+        }
+        if (defaultsLayer.properties == null) {
+            throw new FrameworkException("Configuration not found: " + DEFAULTS_FILE + " (searched "
+                    + (dir != null ? dir : "classpath:" + CLASSPATH_FOLDER + ", " + SOURCE_FOLDER) + ")");
+        }
+        if (environmentLayer.properties == null) {
+            logger.warn("Could not load configuration from: " + environmentLayer.location);
+        }
+
+        Properties files = new Properties();
+        files.putAll(defaultsLayer.properties);
+        if (environmentLayer.properties != null) {
+            files.putAll(environmentLayer.properties);
+        }
+        ConfigSchema schema = schemaLayer.properties != null
+                ? ConfigSchema.parse(schemaLayer.properties) : ConfigSchema.empty();
+        Properties variables = environmentVariables();
+
+        List<String> sources = new ArrayList<>();
+        sources.add(defaultsLayer.location);
+        if (environmentLayer.properties != null) {
+            sources.add(environmentLayer.location);
+        }
+        if (!variables.isEmpty()) {
+            sources.add(variables.size() + " environment variables");
+        }
+        sources.add("system properties");
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Loaded configuration for env '" + env + "' in " + loadMillis + "ms from " + String.join(" < ", sources));
+        return new Layers(files, variables, schema, defaultsLayer.directory, Collections.unmodifiableList(sources));
+    }
+
+    /**
+     * Only {@code FW_}-prefixed variables are taken, so shell variables that happen to share a
+     * name with a key (many desktops export {@code BROWSER}) never leak into the configuration.
+     */
+    private static Properties environmentVariables() {
+        Properties variables = new Properties();
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (entry.getKey().startsWith(ENV_PREFIX) && entry.getKey().length() > ENV_PREFIX.length()) {
+                String key = entry.getKey().substring(ENV_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '.');
+                variables.setProperty(key, entry.getValue());
+            }
+        }
+        return variables;
+    }
+
+    private static Path configuredDirectory() {
+        String dir = firstNonBlank(System.getProperty("config.dir"), System.getenv("CONFIG_DIR"), null);
+        return dir == null ? null : Paths.get(dir).toAbsolutePath();
+    }
+
+    private static Source read(Path dir, String fileName) {
+        if (dir != null) {
+            return readFile(dir.resolve(fileName));
+        }
+        URL resource = ConfigLoader.class.getClassLoader().getResource(CLASSPATH_FOLDER + fileName);
+        if (resource != null) {
+            Properties properties = new Properties();
+            try (InputStream in = resource.openStream()) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + resource, e);
+            }
+            return new Source("classpath:" + CLASSPATH_FOLDER + fileName, properties, directoryOf(resource));
+        }
+        Source fallback = readFile(Paths.get(SOURCE_FOLDER, fileName).toAbsolutePath());
+        return fallback.properties != null ? fallback
+                : new Source("classpath:" + CLASSPATH_FOLDER + fileName + " or " + fallback.location, null, null);
+    }
+
+    private static Source readFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return new Source(file.toString(), null, file.getParent());
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        return new Source(file.toString(), properties, file.getParent());
+    }
+
+    /**
+     * The folder holding a classpath resource, or null inside a jar (nothing to watch there).
+     */
+    private static Path directoryOf(URL resource) {
+        if (!"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI()).getParent();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String firstNonBlank(String first, String second, String fallback) {
+        if (first != null && !first.trim().isEmpty()) {
+            return first.trim();
+        }
+        if (second != null && !second.trim().isEmpty()) {
+            return second.trim();
+        }
+        return fallback;
+    }
+
+    private static final class Source {
+        private final String location;
+        private final Properties properties;
+        private final Path directory;
+
+        Source(String location, Properties properties, Path directory) {
+            this.location = location;
+            this.properties = properties;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * The loaded layers below system properties, plus where they came from.
+     */
+    static final class Layers {
+        final Properties files;
+        final Properties environmentVariables;
+        final ConfigSchema schema;
+        final Path directory;
+        final List<String> sources;
+
+        Layers(Properties files, Properties environmentVariables, ConfigSchema schema, Path directory, List<String> sources) {
+            this.files = files;
+            this.environmentVariables = environmentVariables;
+            this.schema = schema;
+            this.directory = directory;
+            this.sources = sources;
+        }
+    }
+}
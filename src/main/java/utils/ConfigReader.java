@@ -1,81 +1,181 @@
 package utils;
 
+import constants.FrameworkException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Resolves the configuration layers loaded by {@link ConfigLoader} (defaults, {@code <env>}
+ * overlay, {@code FW_*} environment variables, system properties) into an immutable
+ * {@link ConfigSnapshot}, validated against {@code config.schema.properties}. Getters read the
+ * current snapshot without locking; system properties set after start-up are picked up by
+ * {@link #reload()}. With {@code config.hot.reload=true} the folder the files were loaded from is
+ * watched and edited files are reloaded.
+ */
 public class ConfigReader {
     private static final Logger logger = LogManager.getLogger(ConfigReader.class);
-    private static final Properties properties = new Properties();
-    private static final String DEFAULT_CONFIG_PATH = "src/test/resources/config/config.properties";
-    private static boolean isInitialized = false;
+    private static final long RELOAD_DEBOUNCE_MILLIS = 200;
+
+    // Programmatic overrides from setValue, kept across reloads
+    private static final Properties overrides = new Properties();
+    private static ConfigLoader.Layers layers;
+    private static volatile ConfigSnapshot snapshot;
+    private static long version;
 
     static {
         initializeConfig();
     }
 
     private static void initializeConfig() {
-        if (!isInitialized) {
-            try {
-                // Load default config
-                loadProperties(DEFAULT_CONFIG_PATH);
-
-                // Load environment specific config if specified
-                String env = System.getProperty("env", "dev");
-                String envConfigPath = String.format("src/test/resources/config/%s.properties", env);
-                loadProperties(envConfigPath);
-
-                isInitialized = true;
-            } catch (IOException e) {
-                logger.error("Failed to load configuration: " + e.getMessage());
-                throw new RuntimeException("Failed to load configuration", e);
-            }
+        layers = ConfigLoader.load();
+        Set<String> undeclared = layers.schema.undeclared(layers.files.stringPropertyNames());
+        if (!undeclared.isEmpty()) {
+            logger.warn("Configuration keys not declared in " + ConfigLoader.SCHEMA_FILE + " (typo?): " + undeclared);
+        }
+        publish(layers);
+        if (snapshot.getBoolean("config.hot.reload", false)) {
+            startWatcher();
         }
     }
 
-    private static void loadProperties(String filePath) throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath)) {
-            properties.load(fis);
-            logger.info("Loaded configuration from: " + filePath);
-        } catch (IOException e) {
-            logger.warn("Could not load configuration from: " + filePath);
-            if (filePath.equals(DEFAULT_CONFIG_PATH)) {
-                throw e;
-            }
+    /**
+     * Loads the configuration if nothing has yet. Called at suite start so the files are read
+     * once, before worker threads start asking for settings.
+     */
+    public static void initialize() {
+        logger.debug("Configuration version " + snapshot.getVersion() + " active");
+    }
+
+    private static synchronized void publish(ConfigLoader.Layers source) {
+        Properties merged = new Properties();
+        merged.putAll(source.files);
+        merged.putAll(source.environmentVariables);
+        merged.putAll(overrides);
+        ConfigSnapshot candidate = new ConfigSnapshot(merged, System.getProperties(), version + 1);
+        List<String> errors = source.schema.validate(candidate.asMap());
+        if (!errors.isEmpty()) {
+            throw new FrameworkException("Invalid configuration:\n  " + String.join("\n  ", errors));
         }
+        version++;
+        layers = source;
+        snapshot = candidate;
+    }
+
+    /**
+     * The current configuration. Callers that read several settings should hold on to one
+     * snapshot so they see a consistent set even if a reload happens in between.
+     */
+    public static ConfigSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Re-reads every layer and publishes a new snapshot. A file that fails to load or to
+     * validate leaves the current snapshot in place.
+     */
+    public static synchronized void reload() {
+        ConfigSnapshot previous = snapshot;
+        try {
+            publish(ConfigLoader.load());
+        } catch (RuntimeException e) {
+            logger.error("Configuration reload failed, keeping version " + previous.getVersion() + ": " + e.getMessage());
+            return;
+        }
+        long changed = snapshot.asMap().entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), previous.get(entry.getKey())))
+                .count() + previous.asMap().keySet().stream().filter(key -> snapshot.get(key) == null).count();
+        logger.info("Reloaded configuration as version " + snapshot.getVersion() + " (" + changed + " keys changed)");
     }
 
     public static String getValue(String key) {
-        return getValue(key, null);
+        return snapshot.get(key);
     }
 
     public static String getValue(String key, String defaultValue) {
-        String value = System.getProperty(key);
-        if (value == null) {
-            value = properties.getProperty(key, defaultValue);
-        }
-        return value;
+        return snapshot.get(key, defaultValue);
     }
 
     public static int getIntValue(String key, int defaultValue) {
-        String value = getValue(key);
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public static boolean getBooleanValue(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Overrides a file property; system properties still take precedence, as on start-up.
+     */
+    public static synchronized void setValue(String key, String value) {
+        String previous = overrides.getProperty(key);
+        overrides.setProperty(key, value);
         try {
-            return value != null ? Integer.parseInt(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            logger.warn("Invalid integer value for key: " + key + ". Using default: " + defaultValue);
-            return defaultValue;
+            publish(layers);
+        } catch (FrameworkException e) {
+            if (previous == null) {
+                overrides.remove(key);
+            } else {
+                overrides.setProperty(key, previous);
+            }
+            throw e;
         }
     }
 
-    public static boolean getBooleanValue(String key, boolean defaultValue) {
-        String value = getValue(key);
-        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    private static void startWatcher() {
+        Path dir = layers.directory;
+        if (dir == null) {
+            logger.warn("Config hot reload disabled, configuration was not loaded from a folder");
+            return;
+        }
+        WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            logger.warn("Config hot reload disabled, cannot watch " + dir + ": " + e.getMessage());
+            return;
+        }
+        Thread thread = new Thread(() -> watch(watcher), "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching " + dir + " for configuration changes");
     }
 
-    public static void setValue(String key, String value) {
-        properties.setProperty(key, value);
+    private static void watch(WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = false;
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        relevant |= String.valueOf(event.context()).endsWith(".properties");
+                    }
+                    key.reset();
+                    // Editors often write a file in several steps; let them finish before reloading
+                    key = watcher.poll(RELOAD_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (relevant) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
     }
 }
@@ -0,0 +1,208 @@
+package utils;
+
+import constants.FrameworkException;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Declared configuration keys from {@code config.schema.properties}, one per line:
+ * {@code key=type[;required]}. Types are {@code string}, {@code boolean}, {@code double},
+ * {@code url}, {@code list}, {@code int} or {@code int(min..max)}, and {@code enum(a|b|c)}
+ * (case-insensitive). A key ending in {@code .*} covers every key with that prefix. Empty values
+ * are accepted unless the key is required.
+ */
+final class ConfigSchema {
+    private final Map<String, Rule> rules;
+
+    private ConfigSchema(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    static ConfigSchema empty() {
+        return new ConfigSchema(Collections.emptyMap());
+    }
+
+    static ConfigSchema parse(Properties declarations) {
+        Map<String, Rule> rules = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(declarations.stringPropertyNames())) {
+            rules.put(key, Rule.parse(key, declarations.getProperty(key)));
+        }
+        return new ConfigSchema(Collections.unmodifiableMap(rules));
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    boolean declares(String key) {
+        return rule(key) != null;
+    }
+
+    /**
+     * Every violation in the merged configuration, empty when it is valid.
+     */
+    List<String> validate(Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+        for (Rule rule : rules.values()) {
+            if (rule.required && !rule.prefix) {
+                String value = values.get(rule.key);
+                if (value == null || value.trim().isEmpty()) {
+                    errors.add(rule.key + " is required (" + rule.spec + ")");
+                }
+            }
+        }
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            Rule rule = rule(entry.getKey());
+            if (rule != null && !entry.getValue().trim().isEmpty()) {
+                String problem = rule.check(entry.getValue().trim());
+                if (problem != null) {
+                    errors.add(entry.getKey() + "=" + entry.getValue() + ": " + problem);
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Keys set in the given layers that the schema does not declare, most likely typos.
+     */
+    Set<String> undeclared(Collection<String> keys) {
+        Set<String> unknown = new TreeSet<>();
+        if (!rules.isEmpty()) {
+            for (String key : keys) {
+                if (!declares(key)) {
+                    unknown.add(key);
+                }
+            }
+        }
+        return unknown;
+    }
+
+    private Rule rule(String key) {
+        Rule rule = rules.get(key);
+        if (rule != null) {
+            return rule;
+        }
+        for (Rule candidate : rules.values()) {
+            if (candidate.prefix && key.startsWith(candidate.key)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        private final String key;
+        private final boolean prefix;
+        private final String spec;
+        private final String type;
+        private final boolean required;
+        private final long min;
+        private final long max;
+        private final Set<String> allowed;
+
+        private Rule(String key, String spec, String type, boolean required, long min, long max, Set<String> allowed) {
+            boolean wildcard = key.endsWith(".*");
+            this.key = wildcard ? key.substring(0, key.length() - 1) : key;
+            this.prefix = wildcard;
+            this.spec = spec;
+            this.type = type;
+            this.required = required;
+            this.min = min;
+            this.max = max;
+            this.allowed = allowed;
+        }
+
+        static Rule parse(String key, String spec) {
+            String[] parts = spec.trim().split(";");
+            boolean required = false;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().equalsIgnoreCase("required")) {
+                    required = true;
+                } else {
+                    throw new FrameworkException("Invalid schema entry " + key + "=" + spec + ": unknown flag " + parts[i].trim());
+                }
+            }
+            String type = parts[0].trim().toLowerCase(Locale.ROOT);
+            long min = Long.MIN_VALUE;
+            long max = Long.MAX_VALUE;
+            Set<String> allowed = Collections.emptySet();
+            int open = type.indexOf('(');
+            if (open > 0 && type.endsWith(")")) {
+                String argument = type.substring(open + 1, type.length() - 1);
+                type = type.substring(0, open);
+                if (type.equals("int")) {
+                    String[] range = argument.split("\\.\\.");
+                    try {
+                        min = range[0].isEmpty() ? Long.MIN_VALUE : Long.parseLong(range[0].trim());
+                        max = range.length < 2 || range[1].isEmpty() ? Long.MAX_VALUE : Long.parseLong(range[1].trim());
+                    } catch (NumberFormatException e) {
+                        throw new FrameworkException("Invalid schema entry " + key + "=" + spec + ": bad range " + argument);
+                    }
+                } else if (type.equals("enum")) {
+                    allowed = new LinkedHashSet<>(Arrays.asList(argument.split("\\|")));
+                } else {
+                    throw new FrameworkException("Invalid schema entry " + key + "=" + spec + ": " + type + " takes no arguments");
+                }
+            }
+            if (!Arrays.asList("string", "boolean", "double", "url", "list", "int", "enum").contains(type)) {
+                throw new FrameworkException("Invalid schema entry " + key + "=" + spec + ": unknown type " + type);
+            }
+            return new Rule(key, spec.trim(), type, required, min, max, allowed);
+        }
+
+        String check(String value) {
+            switch (type) {
+                case "int":
+                    try {
+                        long number = Long.parseLong(value);
+                        if (number < min || number > max) {
+                            return "must be between " + (min == Long.MIN_VALUE ? "-inf" : min) + " and "
+                                    + (max == Long.MAX_VALUE ? "inf" : max);
+                        }
+                        return null;
+                    } catch (NumberFormatException e) {
+                        return "not an integer";
+                    }
+                case "double":
+                    try {
+                        Double.parseDouble(value);
+                        return null;
+                    } catch (NumberFormatException e) {
+                        return "not a number";
+                    }
+                case "boolean":
+                    return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false") ? null : "not true/false";
+                case "url":
+                    try {
+                        URI uri = new URI(value);
+                        return uri.getScheme() != null && uri.getHost() != null ? null : "not an absolute URL";
+                    } catch (URISyntaxException e) {
+                        return "not a URL";
+                    }
+                case "enum":
+                    for (String option : allowed) {
+                        if (option.equalsIgnoreCase(value)) {
+                            return null;
+                        }
+                    }
+                    return "must be one of " + allowed;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable, fully resolved configuration: file properties overlaid with system properties,
+ * with numbers parsed once. {@link ConfigReader} publishes one snapshot at a time through a
+ * volatile reference, so reads are plain map lookups with no locking, and a reload swaps the
+ * whole snapshot at once instead of exposing a half-updated configuration.
+ */
+public final class ConfigSnapshot {
+    private static final Logger logger = LogManager.getLogger(ConfigSnapshot.class);
+
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints;
+    private final long version;
+
+    // Settings read on hot paths, resolved up front
+    private final Duration explicitWait;
+    private final Duration waitPollingInterval;
+    private final int maxRetryCount;
+    private final RetryPolicy retryPolicy;
+    private final String extentReportPath;
+    private final String screenshotDir;
+
+    ConfigSnapshot(Properties fileProperties, Properties systemProperties, long version) {
+        Map<String, String> merged = new HashMap<>();
+        fileProperties.stringPropertyNames().forEach(key -> merged.put(key, fileProperties.getProperty(key)));
+        systemProperties.stringPropertyNames().forEach(key -> merged.put(key, systemProperties.getProperty(key)));
+        this.values = Collections.unmodifiableMap(merged);
+
+        Map<String, Integer> parsed = new HashMap<>();
+        merged.forEach((key, value) -> {
+            try {
+                parsed.put(key, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                // Not a number; getInt falls back to its default for this key
+            }
+        });
+        this.ints = Collections.unmodifiableMap(parsed);
+        this.version = version;
+
+        this.explicitWait = getDuration("explicit.wait", ChronoUnit.SECONDS, 10);
+        this.waitPollingInterval = getDuration("wait.polling.interval", ChronoUnit.MILLIS, 500);
+        this.maxRetryCount = getInt("max.retry.count", 2);
+        this.retryPolicy = new RetryPolicy(
+                getInt("auto.retry.count", 3),
+                getInt("retry.delay", 1000),
+                getInt("retry.max.delay", 8000),
+                getDouble("retry.backoff.multiplier", 2.0),
+                getDouble("retry.jitter", 0.5));
+        this.extentReportPath = get("extent.report.path", "reports/ExtentReport.html");
+        this.screenshotDir = get("screenshot.path", "screenshots");
+    }
+
+    /**
+     * Increases with every snapshot {@link ConfigReader} publishes.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = ints.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (values.containsKey(key) && !values.get(key).trim().isEmpty()) {
+            logger.warn("Invalid integer value for key: " + key + ". Using default: " + defaultValue);
+        }
+        return defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number value for key: " + key + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * An integer setting interpreted in the given unit, e.g. {@code explicit.wait} in seconds.
+     */
+    public Duration getDuration(String key, ChronoUnit unit, long defaultValue) {
+        Integer value = ints.get(key);
+        return Duration.of(value != null ? value : defaultValue, unit);
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+
+    public Duration getWaitPollingInterval() {
+        return waitPollingInterval;
+    }
+
+    public int getMaxRetryCount() {
+        return maxRetryCount;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public String getExtentReportPath() {
+        return extentReportPath;
+    }
+
+    public String getScreenshotDir() {
+        return screenshotDir;
+    }
+}
@@ -0,0 +1,80 @@
+package utils;
+
+import constants.FrameworkConstants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.annotations.DataProvider;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * TestNG data providers over CSV files in the test data folder. Each row is passed to the test
+ * as a single {@code Map<String, String>} argument ({@link CsvRow}), like the Excel provider.
+ * The file is the {@code testDataFile} suite/test parameter, falling back to {@code test.data.file}.
+ * Rows are narrowed by {@link TestDataFilter} before TestNG sees them.
+ */
+public final class CsvDataProvider {
+    private static final Logger logger = LogManager.getLogger(CsvDataProvider.class);
+
+    private CsvDataProvider() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Object[][] getTestData(String fileName) {
+        List<CsvRow> rows;
+        try (MappedCsvReader reader = new MappedCsvReader(testDataPath(fileName))) {
+            rows = reader.readAll();
+        }
+        Object[][] data = new Object[rows.size()][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[]{rows.get(i)};
+        }
+        logger.info("Successfully read test data from csv: " + fileName);
+        return TestDataFilter.fromConfig().apply(data, fileName);
+    }
+
+    /**
+     * Rows are scanned only as TestNG pulls them.
+     */
+    public static Iterator<Object[]> streamTestData(String fileName) {
+        MappedCsvReader reader = new MappedCsvReader(testDataPath(fileName));
+        return TestDataFilter.fromConfig().apply(new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = reader.hasNext();
+                if (!hasNext) {
+                    reader.close();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{reader.next()};
+            }
+        }, fileName);
+    }
+
+    @DataProvider(name = "csvData")
+    public static Object[][] csvData(ITestContext context) {
+        return getTestData(fileName(context));
+    }
+
+    @DataProvider(name = "csvDataLazy")
+    public static Iterator<Object[]> csvDataLazy(ITestContext context) {
+        return streamTestData(fileName(context));
+    }
+
+    private static String fileName(ITestContext context) {
+        String fileName = context == null ? null : context.getCurrentXmlTest().getParameter("testDataFile");
+        return fileName != null ? fileName : ConfigReader.getValue("test.data.file", "TestData.csv");
+    }
+
+    static Path testDataPath(String fileName) {
+        return Paths.get(FrameworkConstants.TEST_DATA_PATH, fileName);
+    }
+}
@@ -0,0 +1,139 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Flyweight view of one CSV row over the memory-mapped file. It holds only the byte offsets
+ * of its fields; values are decoded each time they are read, so unread columns never become
+ * Strings. Being a {@code Map<String, String>} keyed by header, it can stand in wherever data
+ * providers used to hand out a {@code HashMap} per row. Missing trailing fields read as "".
+ */
+public final class CsvRow extends AbstractMap<String, String> {
+    private final ByteBuffer data;
+    private final Header header;
+    private final int rowNumber;
+    // start, end pairs; a negative end (~end) marks a quoted field containing "" escapes
+    private final int[] bounds;
+    private final int fieldCount;
+
+    CsvRow(ByteBuffer data, Header header, int rowNumber, int[] bounds, int fieldCount) {
+        this.data = data;
+        this.header = header;
+        this.rowNumber = rowNumber;
+        this.bounds = bounds;
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * One-based data row number, not counting the header.
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public String get(int column) {
+        if (column < 0 || column >= fieldCount) {
+            return "";
+        }
+        int start = bounds[column * 2];
+        int end = bounds[column * 2 + 1];
+        boolean escaped = end < 0;
+        if (escaped) {
+            end = ~end;
+        }
+        if (start == end) {
+            return "";
+        }
+        byte[] bytes = new byte[end - start];
+        // Duplicates share the mapping; the shared buffer's position is never touched
+        ByteBuffer slice = data.duplicate();
+        slice.position(start);
+        slice.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return escaped ? value.replace("\"\"", "\"") : value;
+    }
+
+    @Override
+    public String get(Object column) {
+        Integer index = header.indexOf(column);
+        return index == null ? null : get(index.intValue());
+    }
+
+    @Override
+    public boolean containsKey(Object column) {
+        return header.indexOf(column) != null;
+    }
+
+    @Override
+    public int size() {
+        return header.size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+                    private int column;
+
+                    @Override
+                    public boolean hasNext() {
+                        return column < header.size();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int current = column++;
+                        return new SimpleImmutableEntry<>(header.name(current), get(current));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return header.size();
+            }
+        };
+    }
+
+    /**
+     * Column names and their positions, shared by every row of a file.
+     */
+    static final class Header {
+        private final List<String> names;
+        private final Map<String, Integer> positions;
+
+        Header(List<String> names, Map<String, Integer> positions) {
+            this.names = names;
+            this.positions = positions;
+        }
+
+        Integer indexOf(Object column) {
+            return positions.get(column);
+        }
+
+        String name(int column) {
+            return names.get(column);
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        List<String> names() {
+            return names;
+        }
+    }
+}
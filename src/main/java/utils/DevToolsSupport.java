@@ -0,0 +1,97 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Thin, CDP-version independent access to Chrome DevTools. Commands and events are sent
+ * by name, so the framework does not have to track the versioned devtools artifacts.
+ */
+public final class DevToolsSupport {
+    private static final Logger logger = LogManager.getLogger(DevToolsSupport.class);
+    private static final Map<WebDriver, DevTools> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Boolean> unsupported = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private DevToolsSupport() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Optional<DevTools> getDevTools(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || unsupported.containsKey(driver)) {
+            return Optional.empty();
+        }
+        DevTools devTools = sessions.get(driver);
+        if (devTools != null) {
+            return Optional.of(devTools);
+        }
+        synchronized (sessions) {
+            devTools = sessions.get(driver);
+            if (devTools == null) {
+                try {
+                    Optional<DevTools> maybe = ((HasDevTools) driver).maybeGetDevTools();
+                    if (!maybe.isPresent()) {
+                        unsupported.put(driver, Boolean.TRUE);
+                        return Optional.empty();
+                    }
+                    devTools = maybe.get();
+                    devTools.createSessionIfThereIsNotOne();
+                    sessions.put(driver, devTools);
+                } catch (Exception e) {
+                    logger.debug("DevTools not available for this driver: {}", e.getMessage());
+                    unsupported.put(driver, Boolean.TRUE);
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(devTools);
+        }
+    }
+
+    public static boolean isAvailable(WebDriver driver) {
+        return getDevTools(driver).isPresent();
+    }
+
+    /**
+     * Sends a raw CDP command, returning {@code false} when DevTools is unavailable or the
+     * command was rejected.
+     */
+    public static boolean send(WebDriver driver, String method, Map<String, Object> params) {
+        Optional<DevTools> devTools = getDevTools(driver);
+        if (!devTools.isPresent()) {
+            return false;
+        }
+        try {
+            devTools.get().send(new Command<Void>(method, params));
+            return true;
+        } catch (Exception e) {
+            logger.warn("CDP command {} failed: {}", method, e.getMessage());
+            return false;
+        }
+    }
+
+    public static boolean addListener(WebDriver driver, String eventName, Consumer<Map<String, Object>> listener) {
+        Optional<DevTools> devTools = getDevTools(driver);
+        if (!devTools.isPresent()) {
+            return false;
+        }
+        Event<Map<String, Object>> event = new Event<>(eventName, input -> input.read(Json.MAP_TYPE));
+        devTools.get().addListener(event, listener);
+        return true;
+    }
+
+    public static void release(WebDriver driver) {
+        sessions.remove(driver);
+        unsupported.remove(driver);
+    }
+}
@@ -0,0 +1,309 @@
+package utils;
+
+import constants.FrameworkException;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves driver binaries (chromedriver, geckodriver, msedgedriver) once per JVM from a
+ * local cache directory keyed by the installed browser version. WebDriverManager is only
+ * consulted when {@code driver.wdm.fallback} is enabled, which keeps air-gapped agents offline.
+ */
+public final class DriverBinaryResolver {
+    private static final Logger logger = LogManager.getLogger(DriverBinaryResolver.class);
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.(\\d+)(?:\\.(\\d+))?(?:\\.(\\d+))?");
+    private static final boolean IS_WINDOWS = System.getProperty("os.name", "").toLowerCase().contains("win");
+    private static final String LOCK_FILE = ".resolver.lock";
+    private static final long VERSION_TIMEOUT_SECONDS = 5;
+
+    private static final Object jvmLock = new Object();
+    // Single flight per driver: the first caller resolves, concurrent callers wait on its future
+    private static final Map<String, CompletableFuture<Path>> resolvedDrivers = new ConcurrentHashMap<>();
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+
+    private DriverBinaryResolver() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Ensures the driver binary for the given browser is resolved and registered through
+     * the matching {@code webdriver.*.driver} system property. Subsequent calls are free.
+     */
+    public static Path resolve(String browser) {
+        DriverType type = DriverType.forBrowser(browser);
+        CompletableFuture<Path> flight = new CompletableFuture<>();
+        CompletableFuture<Path> existing = resolvedDrivers.putIfAbsent(type.name(), flight);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        // Probing, locking and downloading happen outside the map, so no map bin stays locked during I/O
+        try {
+            Path driverPath = resolveOnce(type);
+            flight.complete(driverPath);
+            return driverPath;
+        } catch (RuntimeException e) {
+            // Let a later call try again, e.g. after the cache was populated
+            resolvedDrivers.remove(type.name(), flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Path resolveOnce(DriverType type) {
+        long start = System.nanoTime();
+        String preset = System.getProperty(type.systemProperty);
+        if (preset != null && Files.isExecutable(Paths.get(preset))) {
+            cacheHits.incrementAndGet();
+            logger.info("Using preconfigured {} from {}", type.driverName, preset);
+            return Paths.get(preset);
+        }
+
+        Path cacheDir = getCacheDirectory();
+        String browserVersion = detectBrowserVersion(type);
+        boolean cacheHit;
+        Path driverPath;
+
+        try {
+            Files.createDirectories(cacheDir);
+            // Forked JVMs share the cache directory, so only one of them may populate it at a time.
+            // File locks are held per JVM, hence the additional in-process monitor.
+            synchronized (jvmLock) {
+                try (FileChannel channel = FileChannel.open(cacheDir.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        driverPath = findCachedDriver(cacheDir, type, browserVersion);
+                        cacheHit = driverPath != null;
+                        if (!cacheHit) {
+                            driverPath = downloadWithFallback(cacheDir, type, browserVersion);
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to resolve " + type.driverName + " from cache " + cacheDir, e);
+        }
+
+        if (cacheHit) {
+            cacheHits.incrementAndGet();
+        } else {
+            cacheMisses.incrementAndGet();
+        }
+        System.setProperty(type.systemProperty, driverPath.toString());
+        logger.info("Resolved {} for browser version {} in {}ms (cacheHit={}): {}",
+                type.driverName, browserVersion == null ? "unknown" : browserVersion,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), cacheHit, driverPath);
+        return driverPath;
+    }
+
+    private static Path findCachedDriver(Path cacheDir, DriverType type, String browserVersion) {
+        Path driverDir = cacheDir.resolve(type.driverName);
+        List<String> candidates = browserVersion == null
+                ? Collections.singletonList("latest")
+                : Arrays.asList(browserVersion, majorVersion(browserVersion), "latest");
+        for (String candidate : candidates) {
+            Path binary = driverDir.resolve(candidate).resolve(type.binaryName());
+            if (Files.isRegularFile(binary)) {
+                return binary;
+            }
+        }
+        return null;
+    }
+
+    private static Path downloadWithFallback(Path cacheDir, DriverType type, String browserVersion) throws IOException {
+        if (!ConfigReader.getBooleanValue("driver.wdm.fallback", false)) {
+            throw new FrameworkException(String.format(
+                    "No cached %s found for browser version %s under %s and driver.wdm.fallback is disabled",
+                    type.driverName, browserVersion, cacheDir.resolve(type.driverName)));
+        }
+
+        logger.info("Driver cache miss for {}, falling back to WebDriverManager", type.driverName);
+        WebDriverManager manager = type.webDriverManager();
+        if (browserVersion != null) {
+            manager.browserVersion(majorVersion(browserVersion));
+        }
+        manager.setup();
+        String downloaded = manager.getDownloadedDriverPath();
+        if (downloaded == null) {
+            throw new FrameworkException("WebDriverManager did not provide a path for " + type.driverName);
+        }
+
+        // Copy into our own layout so the next run (and other forks) get a cache hit
+        String versionKey = browserVersion == null ? "latest" : majorVersion(browserVersion);
+        Path target = cacheDir.resolve(type.driverName).resolve(versionKey).resolve(type.binaryName());
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), type.driverName, ".tmp");
+        Files.copy(Paths.get(downloaded), temp, StandardCopyOption.REPLACE_EXISTING);
+        temp.toFile().setExecutable(true);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    static String detectBrowserVersion(DriverType type) {
+        String configured = ConfigReader.getValue("browser.version." + type.browser);
+        if (configured != null && !configured.isEmpty()) {
+            return configured;
+        }
+        String configuredBinary = ConfigReader.getValue("browser.binary." + type.browser);
+        List<String> binaries = configuredBinary != null
+                ? Collections.singletonList(configuredBinary)
+                : type.browserBinaries();
+        for (String binary : binaries) {
+            String version = readVersion(binary);
+            if (version != null) {
+                return version;
+            }
+        }
+        logger.warn("Could not detect installed {} version", type.browser);
+        return null;
+    }
+
+    private static String readVersion(String binary) {
+        try {
+            Process process = new ProcessBuilder(binary, "--version").redirectErrorStream(true).start();
+            // Read on another thread: a binary that prints nothing and never exits must not block us
+            CompletableFuture<String> firstLine = new CompletableFuture<>();
+            Thread reader = new Thread(() -> firstLine.complete(readFirstLine(process)), "browser-version-reader");
+            reader.setDaemon(true);
+            reader.start();
+            if (!process.waitFor(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.debug("{} --version did not finish within {}s", binary, VERSION_TIMEOUT_SECONDS);
+                return null;
+            }
+            String output;
+            try {
+                output = firstLine.get(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // The browser exited but something it spawned still holds the pipe open
+                logger.debug("Could not read {} --version output: {}", binary, e.getMessage());
+                return null;
+            }
+            if (output != null) {
+                Matcher matcher = VERSION_PATTERN.matcher(output);
+                if (matcher.find()) {
+                    return matcher.group();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Browser binary {} not available: {}", binary, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static String readFirstLine(Process process) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.readLine();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String majorVersion(String version) {
+        int dot = version.indexOf('.');
+        return dot > 0 ? version.substring(0, dot) : version;
+    }
+
+    private static Path getCacheDirectory() {
+        String dir = ConfigReader.getValue("driver.cache.dir");
+        if (dir == null || dir.isEmpty()) {
+            return Paths.get(System.getProperty("user.home"), ".cache", "selenium-drivers");
+        }
+        return Paths.get(dir);
+    }
+
+    public static long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public static long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    enum DriverType {
+        CHROME("chrome", "chromedriver", "webdriver.chrome.driver",
+                "google-chrome", "google-chrome-stable", "chromium", "chromium-browser",
+                "/Applications/Google Chrome.app/Contents/MacOS/Google Chrome"),
+        FIREFOX("firefox", "geckodriver", "webdriver.gecko.driver",
+                "firefox", "/Applications/Firefox.app/Contents/MacOS/firefox"),
+        EDGE("edge", "msedgedriver", "webdriver.edge.driver",
+                "microsoft-edge", "microsoft-edge-stable",
+                "/Applications/Microsoft Edge.app/Contents/MacOS/Microsoft Edge");
+
+        private final String browser;
+        private final String driverName;
+        private final String systemProperty;
+        private final String[] browserBinaries;
+
+        DriverType(String browser, String driverName, String systemProperty, String... browserBinaries) {
+            this.browser = browser;
+            this.driverName = driverName;
+            this.systemProperty = systemProperty;
+            this.browserBinaries = browserBinaries;
+        }
+
+        static DriverType forBrowser(String browser) {
+            for (DriverType type : values()) {
+                if (type.browser.equalsIgnoreCase(browser)) {
+                    return type;
+                }
+            }
+            return CHROME;
+        }
+
+        String binaryName() {
+            return IS_WINDOWS ? driverName + ".exe" : driverName;
+        }
+
+        List<String> browserBinaries() {
+            return Arrays.asList(browserBinaries);
+        }
+
+        WebDriverManager webDriverManager() {
+            switch (this) {
+                case FIREFOX:
+                    return WebDriverManager.firefoxdriver();
+                case EDGE:
+                    return WebDriverManager.edgedriver();
+                default:
+                    return WebDriverManager.chromedriver();
+            }
+        }
+    }
+}
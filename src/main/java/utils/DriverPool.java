@@ -0,0 +1,292 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of reusable WebDriver sessions. Sessions are borrowed for a test,
+ * reset on return and recycled once they exceed the configured use count or age.
+ */
+public class DriverPool {
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    private final Supplier<WebDriver> driverSupplier;
+    private final int maxSize;
+    private final int maxUses;
+    private final long maxAgeMillis;
+    private final long borrowTimeoutMillis;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledDriver> idleDrivers = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledDriver> leasedDrivers = new ConcurrentHashMap<>();
+    private volatile boolean shutdown = false;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong poolHits = new AtomicLong();
+    private final AtomicLong poolMisses = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong totalCreationNanos = new AtomicLong();
+    private final AtomicLong resetCount = new AtomicLong();
+    private final AtomicLong totalResetNanos = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong recycledCount = new AtomicLong();
+    private final AtomicLong healthCheckFailures = new AtomicLong();
+
+    public DriverPool(Supplier<WebDriver> driverSupplier, int maxSize, int maxUses,
+                      long maxAgeMillis, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.driverSupplier = driverSupplier;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.maxAgeMillis = maxAgeMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        logger.info("Driver pool created with maxSize={}, maxUses={}, maxAge={}ms",
+                maxSize, maxUses, maxAgeMillis);
+    }
+
+    public WebDriver borrow() {
+        if (shutdown) {
+            throw new IllegalStateException("Driver pool has been shut down");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out after " + borrowTimeoutMillis
+                        + "ms waiting for a driver from the pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a driver from the pool", e);
+        }
+        totalBorrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+        borrowCount.incrementAndGet();
+
+        try {
+            PooledDriver pooled;
+            while ((pooled = idleDrivers.pollFirst()) != null) {
+                if (isExpired(pooled)) {
+                    recycle(pooled, "expired");
+                } else if (!isHealthy(pooled)) {
+                    healthCheckFailures.incrementAndGet();
+                    recycle(pooled, "failed health check");
+                } else {
+                    poolHits.incrementAndGet();
+                    return lease(pooled);
+                }
+            }
+            poolMisses.incrementAndGet();
+            return lease(createPooledDriver());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(WebDriver driver) {
+        PooledDriver pooled = leasedDrivers.remove(driver);
+        if (pooled == null) {
+            logger.warn("Attempted to release a driver that is not leased from the pool; quitting it");
+            quietQuit(driver);
+            return;
+        }
+        try {
+            if (shutdown || isExpired(pooled)) {
+                recycle(pooled, shutdown ? "pool shut down" : "expired");
+            } else if (!reset(pooled)) {
+                recycle(pooled, "reset failed");
+            } else {
+                idleDrivers.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void invalidate(WebDriver driver) {
+        PooledDriver pooled = leasedDrivers.remove(driver);
+        try {
+            if (pooled != null) {
+                recycle(pooled, "invalidated");
+            } else {
+                quietQuit(driver);
+            }
+        } finally {
+            if (pooled != null) {
+                permits.release();
+            }
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        List<PooledDriver> drivers = new ArrayList<>();
+        idleDrivers.drainTo(drivers);
+        drivers.addAll(leasedDrivers.values());
+        leasedDrivers.clear();
+        for (PooledDriver pooled : drivers) {
+            quietQuit(pooled.driver);
+        }
+        logger.info("Driver pool shut down, closed {} session(s). {}", drivers.size(), getStatsSummary());
+    }
+
+    private WebDriver lease(PooledDriver pooled) {
+        pooled.uses++;
+        leasedDrivers.put(pooled.driver, pooled);
+        return pooled.driver;
+    }
+
+    private PooledDriver createPooledDriver() {
+        long start = System.nanoTime();
+        WebDriver driver = driverSupplier.get();
+        long elapsed = System.nanoTime() - start;
+        createdCount.incrementAndGet();
+        totalCreationNanos.addAndGet(elapsed);
+        logger.info("Created pooled WebDriver session in {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return new PooledDriver(driver);
+    }
+
+    private boolean isExpired(PooledDriver pooled) {
+        boolean tooManyUses = maxUses > 0 && pooled.uses >= maxUses;
+        boolean tooOld = maxAgeMillis > 0 && System.currentTimeMillis() - pooled.createdAt >= maxAgeMillis;
+        return tooManyUses || tooOld;
+    }
+
+    private boolean isHealthy(PooledDriver pooled) {
+        try {
+            pooled.driver.getWindowHandle();
+            Object result = ((JavascriptExecutor) pooled.driver).executeScript("return 1;");
+            return result != null;
+        } catch (Exception e) {
+            logger.warn("Pooled driver failed health check: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(PooledDriver pooled) {
+        long start = System.nanoTime();
+        WebDriver driver = pooled.driver;
+        try {
+            // Close any extra tabs opened by the test
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i));
+                driver.close();
+            }
+            driver.switchTo().window(handles.get(0));
+
+            // Storage is origin scoped, so clear it before leaving the current page
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); } catch (e) {}"
+                        + "try { window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception e) {
+                logger.debug("Could not clear web storage: {}", e.getMessage());
+            }
+            driver.manage().deleteAllCookies();
+            driver.navigate().to("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset pooled driver: {}", e.getMessage());
+            return false;
+        } finally {
+            resetCount.incrementAndGet();
+            totalResetNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void recycle(PooledDriver pooled, String reason) {
+        logger.info("Recycling pooled driver after {} use(s): {}", pooled.uses, reason);
+        recycledCount.incrementAndGet();
+        quietQuit(pooled.driver);
+    }
+
+    private void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while quitting driver: {}", e.getMessage());
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleCount() {
+        return idleDrivers.size();
+    }
+
+    public int getLeasedCount() {
+        return leasedDrivers.size();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getPoolHits() {
+        return poolHits.get();
+    }
+
+    public long getPoolMisses() {
+        return poolMisses.get();
+    }
+
+    public long getRecycledCount() {
+        return recycledCount.get();
+    }
+
+    public long getHealthCheckFailures() {
+        return healthCheckFailures.get();
+    }
+
+    public long getAverageCreationMillis() {
+        long count = createdCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCreationNanos.get() / count);
+    }
+
+    public long getAverageResetMillis() {
+        long count = resetCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalResetNanos.get() / count);
+    }
+
+    public long getAverageBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalBorrowWaitNanos.get() / count);
+    }
+
+    public String getStatsSummary() {
+        return String.format("Driver pool stats: borrows=%d, hits=%d, misses=%d, created=%d, recycled=%d, "
+                        + "healthCheckFailures=%d, avgCreation=%dms, avgReset=%dms, avgBorrowWait=%dms",
+                getBorrowCount(), getPoolHits(), getPoolMisses(), createdCount.get(), getRecycledCount(),
+                getHealthCheckFailures(), getAverageCreationMillis(), getAverageResetMillis(),
+                getAverageBorrowWaitMillis());
+    }
+
+    private static final class PooledDriver {
+        private final WebDriver driver;
+        private final long createdAt = System.currentTimeMillis();
+        private int uses;
+
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
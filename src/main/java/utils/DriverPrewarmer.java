@@ -0,0 +1,222 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a number of browsers launched and already navigated to the base URL in the
+ * background, so test threads can pick up a ready session instead of waiting for launch.
+ * The hand-off goes through a lock-free queue; a taken session triggers an async refill, as far
+ * as the spare limit allows (with the driver pool on, only while the pool has room to grow).
+ */
+public class DriverPrewarmer {
+    private static final Logger logger = LogManager.getLogger(DriverPrewarmer.class);
+
+    private final Supplier<WebDriver> driverSupplier;
+    private final String warmUrl;
+    private final int targetSize;
+    private final IntSupplier spareLimit;
+    private final ExecutorService executor;
+    private final Queue<WarmDriver> readyDrivers = new ConcurrentLinkedQueue<>();
+    // Ready plus in-flight warm-ups, used to keep the number of spare browsers at targetSize
+    private final AtomicInteger reserved = new AtomicInteger();
+    private volatile boolean stopped = false;
+
+    // Metrics
+    private final AtomicLong takeHits = new AtomicLong();
+    private final AtomicLong takeMisses = new AtomicLong();
+    private final AtomicLong warmedCount = new AtomicLong();
+    private final AtomicLong warmFailures = new AtomicLong();
+    private final AtomicLong totalWarmNanos = new AtomicLong();
+    private final AtomicLong totalReadyWaitNanos = new AtomicLong();
+    private final AtomicLong totalHandOffNanos = new AtomicLong();
+
+    public DriverPrewarmer(Supplier<WebDriver> driverSupplier, String warmUrl, int targetSize) {
+        this(driverSupplier, warmUrl, targetSize, () -> targetSize);
+    }
+
+    /**
+     * @param spareLimit how many spare browsers may exist right now; never more than targetSize
+     */
+    public DriverPrewarmer(Supplier<WebDriver> driverSupplier, String warmUrl, int targetSize, IntSupplier spareLimit) {
+        if (targetSize < 1) {
+            throw new IllegalArgumentException("Pre-warm size must be at least 1");
+        }
+        this.driverSupplier = driverSupplier;
+        this.warmUrl = warmUrl;
+        this.targetSize = targetSize;
+        this.spareLimit = spareLimit;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(targetSize, runnable -> {
+            Thread thread = new Thread(runnable, "driver-prewarmer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        logger.info("Pre-warming {} browser session(s) at {}", targetSize, warmUrl);
+        refill();
+    }
+
+    /**
+     * Returns a pre-warmed driver or {@code null} when none is ready yet; the caller is then
+     * expected to create one synchronously.
+     */
+    public WebDriver poll() {
+        long start = System.nanoTime();
+        WarmDriver warm = readyDrivers.poll();
+        if (warm == null) {
+            takeMisses.incrementAndGet();
+            return null;
+        }
+        reserved.decrementAndGet();
+        takeHits.incrementAndGet();
+        totalReadyWaitNanos.addAndGet(System.nanoTime() - warm.readyAt);
+        totalHandOffNanos.addAndGet(System.nanoTime() - start);
+        refill();
+        return warm.driver;
+    }
+
+    private void refill() {
+        while (!stopped) {
+            int current = reserved.get();
+            if (current >= Math.min(targetSize, spareLimit.getAsInt())) {
+                return;
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                try {
+                    executor.execute(this::warmOne);
+                } catch (RejectedExecutionException e) {
+                    reserved.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void warmOne() {
+        if (stopped) {
+            reserved.decrementAndGet();
+            return;
+        }
+        long start = System.nanoTime();
+        WebDriver driver = null;
+        try {
+            driver = driverSupplier.get();
+            if (warmUrl != null && !warmUrl.isEmpty()) {
+                driver.get(warmUrl);
+            }
+            long elapsed = System.nanoTime() - start;
+            warmedCount.incrementAndGet();
+            totalWarmNanos.addAndGet(elapsed);
+            readyDrivers.offer(new WarmDriver(driver));
+            logger.debug("Pre-warmed browser session in {}ms, queue depth {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), readyDrivers.size());
+            if (stopped) {
+                drain();
+            }
+        } catch (Exception e) {
+            warmFailures.incrementAndGet();
+            reserved.decrementAndGet();
+            logger.warn("Failed to pre-warm browser session: {}", e.getMessage());
+            if (driver != null) {
+                quietQuit(driver);
+            }
+        }
+    }
+
+    public void shutdown() {
+        stopped = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        logger.info("Driver pre-warmer stopped. {}", getStatsSummary());
+    }
+
+    private void drain() {
+        WarmDriver warm;
+        while ((warm = readyDrivers.poll()) != null) {
+            reserved.decrementAndGet();
+            quietQuit(warm.driver);
+        }
+    }
+
+    private void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while quitting pre-warmed driver: {}", e.getMessage());
+        }
+    }
+
+    public int getQueueDepth() {
+        return readyDrivers.size();
+    }
+
+    public int getReservedCount() {
+        return reserved.get();
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    public long getTakeHits() {
+        return takeHits.get();
+    }
+
+    public long getTakeMisses() {
+        return takeMisses.get();
+    }
+
+    public long getAverageWarmMillis() {
+        long count = warmedCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWarmNanos.get() / count);
+    }
+
+    public long getAverageReadyWaitMillis() {
+        long hits = takeHits.get();
+        return hits == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalReadyWaitNanos.get() / hits);
+    }
+
+    public long getAverageHandOffMicros() {
+        long hits = takeHits.get();
+        return hits == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalHandOffNanos.get() / hits);
+    }
+
+    public String getStatsSummary() {
+        return String.format("Pre-warmer stats: target=%d, queueDepth=%d, hits=%d, misses=%d, warmed=%d, "
+                        + "failures=%d, avgWarm=%dms, avgIdleInQueue=%dms, avgHandOff=%dus",
+                targetSize, getQueueDepth(), getTakeHits(), getTakeMisses(), warmedCount.get(),
+                warmFailures.get(), getAverageWarmMillis(), getAverageReadyWaitMillis(), getAverageHandOffMicros());
+    }
+
+    private static final class WarmDriver {
+        private final WebDriver driver;
+        private final long readyAt = System.nanoTime();
+
+        private WarmDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
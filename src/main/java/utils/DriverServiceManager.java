@@ -0,0 +1,124 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one long-lived driver service (chromedriver, msedgedriver, geckodriver) per browser
+ * for the whole JVM and opens sessions against it through {@link RemoteWebDriver}, so parallel
+ * tests share a single driver process instead of spawning one per session.
+ */
+public final class DriverServiceManager {
+    private static final Logger logger = LogManager.getLogger(DriverServiceManager.class);
+    private static final Map<String, CompletableFuture<DriverService>> services = new ConcurrentHashMap<>();
+
+    static {
+        // Safety net for runs that never reach the suite teardown hook
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceManager::stopAll, "driver-service-shutdown"));
+    }
+
+    private DriverServiceManager() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanValue("driver.service.shared", false);
+    }
+
+    public static WebDriver createSession(String browser, Capabilities options) {
+        DriverService service = sharedService(browser);
+        RemoteWebDriver driver = new RemoteWebDriver(service.getUrl(), options);
+        // Augmenting restores HasDevTools and friends that the local driver classes expose directly
+        return new Augmenter().augment(driver);
+    }
+
+    private static DriverService sharedService(String browser) {
+        CompletableFuture<DriverService> flight = new CompletableFuture<>();
+        CompletableFuture<DriverService> existing = services.putIfAbsent(browser, flight);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        // Resolving the binary and starting the process happen outside the map, so no map bin stays locked
+        try {
+            DriverService service = startService(browser);
+            flight.complete(service);
+            return service;
+        } catch (RuntimeException e) {
+            // Let the next session try again instead of failing on the cached error
+            services.remove(browser, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static DriverService startService(String browser) {
+        long start = System.nanoTime();
+        DriverService service;
+        switch (browser) {
+            case "firefox":
+                service = new GeckoDriverService.Builder()
+                        .usingDriverExecutable(DriverBinaryResolver.resolve(browser).toFile())
+                        .usingAnyFreePort()
+                        .build();
+                break;
+            case "edge":
+                service = new EdgeDriverService.Builder()
+                        .usingDriverExecutable(DriverBinaryResolver.resolve(browser).toFile())
+                        .usingAnyFreePort()
+                        .build();
+                break;
+            default:
+                service = new ChromeDriverService.Builder()
+                        .usingDriverExecutable(DriverBinaryResolver.resolve(browser).toFile())
+                        .usingAnyFreePort()
+                        .build();
+        }
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to start shared driver service for " + browser, e);
+        }
+        logger.info("Started shared {} driver service at {} in {}ms", browser, service.getUrl(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return service;
+    }
+
+    public static void stopAll() {
+        for (Map.Entry<String, CompletableFuture<DriverService>> entry : services.entrySet()) {
+            CompletableFuture<DriverService> flight = entry.getValue();
+            if (!flight.isDone() || flight.isCompletedExceptionally()) {
+                continue;
+            }
+            try {
+                DriverService service = flight.join();
+                if (service.isRunning()) {
+                    service.stop();
+                    logger.info("Stopped shared {} driver service", entry.getKey());
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to stop {} driver service: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        services.clear();
+    }
+}
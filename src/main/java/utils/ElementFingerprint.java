@@ -0,0 +1,184 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact description of an element (tag, id, classes, text, accessibility attributes and
+ * the path of its ancestors) used to recognise it again after its locator breaks. Token sets
+ * are built once at construction so that scoring a candidate is a handful of set lookups.
+ */
+public final class ElementFingerprint {
+    static final String[] ATTRIBUTES = {"aria-label", "role", "name", "title", "type", "placeholder"};
+
+    private static final double TAG_WEIGHT = 0.10;
+    private static final double ID_WEIGHT = 0.25;
+    private static final double CLASS_WEIGHT = 0.15;
+    private static final double TEXT_WEIGHT = 0.20;
+    private static final double ATTRIBUTE_WEIGHT = 0.20;
+    private static final double PATH_WEIGHT = 0.10;
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    private final String tag;
+    private final String id;
+    private final Set<String> idTokens;
+    private final Set<String> classes;
+    private final String text;
+    private final Set<String> textTokens;
+    private final Map<String, String> attributes;
+    private final List<String> path;
+
+    private ElementFingerprint(String tag, String id, String classNames, String text,
+                               Map<String, String> attributes, String path) {
+        this.tag = tag;
+        this.id = id;
+        this.idTokens = tokens(id);
+        this.classes = split(classNames, false);
+        this.text = text;
+        this.textTokens = tokens(text);
+        this.attributes = attributes;
+        this.path = path.isEmpty() ? Collections.emptyList() : Arrays.asList(path.split(">", -1));
+    }
+
+    /**
+     * Builds a fingerprint from one row of the describe script: tag, id, class, text, the
+     * {@link #ATTRIBUTES} in order, and the ancestor path.
+     */
+    static ElementFingerprint fromValues(List<?> values) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            String value = valueAt(values, 4 + i);
+            if (!value.isEmpty()) {
+                attributes.put(ATTRIBUTES[i], value);
+            }
+        }
+        return new ElementFingerprint(valueAt(values, 0).toLowerCase(Locale.ROOT), valueAt(values, 1),
+                valueAt(values, 2), valueAt(values, 3).toLowerCase(Locale.ROOT), attributes,
+                valueAt(values, 4 + ATTRIBUTES.length));
+    }
+
+    static ElementFingerprint decode(String encoded) {
+        return fromValues(Arrays.asList(encoded.split(String.valueOf(FIELD_SEPARATOR), -1)));
+    }
+
+    String encode() {
+        List<String> values = new ArrayList<>();
+        values.add(tag);
+        values.add(id);
+        values.add(String.join(" ", classes));
+        values.add(text);
+        for (String attribute : ATTRIBUTES) {
+            values.add(attributes.getOrDefault(attribute, ""));
+        }
+        values.add(String.join(">", path));
+        return String.join(String.valueOf(FIELD_SEPARATOR), values);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Weighted similarity in [0, 1]. Only features present on this (the reference) fingerprint
+     * count towards the total, so an element without an id is not penalised for lacking one.
+     */
+    public double similarity(ElementFingerprint candidate) {
+        double score = tag.equals(candidate.tag) ? TAG_WEIGHT : 0;
+        double total = TAG_WEIGHT;
+        if (!id.isEmpty()) {
+            total += ID_WEIGHT;
+            score += ID_WEIGHT * (id.equals(candidate.id) ? 1 : jaccard(idTokens, candidate.idTokens));
+        }
+        if (!classes.isEmpty()) {
+            total += CLASS_WEIGHT;
+            score += CLASS_WEIGHT * jaccard(classes, candidate.classes);
+        }
+        if (!text.isEmpty()) {
+            total += TEXT_WEIGHT;
+            score += TEXT_WEIGHT * (text.equals(candidate.text) ? 1 : jaccard(textTokens, candidate.textTokens));
+        }
+        if (!attributes.isEmpty()) {
+            int matched = 0;
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                if (attribute.getValue().equals(candidate.attributes.get(attribute.getKey()))) {
+                    matched++;
+                }
+            }
+            total += ATTRIBUTE_WEIGHT;
+            score += ATTRIBUTE_WEIGHT * matched / attributes.size();
+        }
+        if (!path.isEmpty()) {
+            total += PATH_WEIGHT;
+            score += PATH_WEIGHT * pathSimilarity(candidate.path);
+        }
+        return score / total;
+    }
+
+    private double pathSimilarity(List<String> other) {
+        // Paths are nearest ancestor first, so a shared prefix means the same immediate context
+        int common = 0;
+        while (common < path.size() && common < other.size() && path.get(common).equals(other.get(common))) {
+            common++;
+        }
+        return (double) common / path.size();
+    }
+
+    private static double jaccard(Set<String> reference, Set<String> candidate) {
+        if (reference.isEmpty() || candidate.isEmpty()) {
+            return 0;
+        }
+        int intersection = 0;
+        for (String token : candidate) {
+            if (reference.contains(token)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (reference.size() + candidate.size() - intersection);
+    }
+
+    private static Set<String> tokens(String value) {
+        return split(value.toLowerCase(Locale.ROOT), true);
+    }
+
+    /**
+     * Splits on whitespace, or on any non-alphanumeric character when {@code wordsOnly} is set.
+     * Hand-rolled because this runs for every candidate on the page.
+     */
+    private static Set<String> split(String value, boolean wordsOnly) {
+        if (value.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean separator = i == value.length() || (wordsOnly
+                    ? !Character.isLetterOrDigit(value.charAt(i))
+                    : Character.isWhitespace(value.charAt(i)));
+            if (!separator && start < 0) {
+                start = i;
+            } else if (separator && start >= 0) {
+                result.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private static String valueAt(List<?> values, int index) {
+        Object value = index < values.size() ? values.get(index) : null;
+        return value == null ? "" : value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return tag + (id.isEmpty() ? "" : "#" + id) + (classes.isEmpty() ? "" : "." + String.join(".", classes))
+                + (text.isEmpty() ? "" : " '" + text + "'");
+    }
+}
@@ -3,15 +3,12 @@ package utils;
 import constants.FrameworkConstants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 
 public class ExcelDataProvider {
     private static final Logger logger = LogManager.getLogger(ExcelDataProvider.class);
@@ -20,63 +17,46 @@ public class ExcelDataProvider {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Reads a sheet, or the whole file for {@code .csv} test data (which has no sheets). Sheets
+     * come from {@link TestDataCache} unless {@code test.data.cache.enabled=false}. Rows are
+     * narrowed by {@link TestDataFilter} ({@code data.filter}, {@code data.shard}).
+     */
     public static Object[][] getTestData(String fileName, String sheetName) {
-        Object[][] data = null;
-        try (FileInputStream fis = new FileInputStream(FrameworkConstants.TEST_DATA_PATH + fileName);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-
-            Sheet sheet = workbook.getSheet(sheetName);
-            int rowCount = sheet.getLastRowNum();
-            int colCount = sheet.getRow(0).getLastCellNum();
-            
-            // Get header row for map keys
-            Row headerRow = sheet.getRow(0);
-            List<String> headers = new ArrayList<>();
-            for (int i = 0; i < colCount; i++) {
-                headers.add(headerRow.getCell(i).getStringCellValue());
-            }
-
-            data = new Object[rowCount][1];
-            // Start from row 1 as row 0 is header
-            for (int i = 1; i <= rowCount; i++) {
-                Map<String, String> rowData = new HashMap<>();
-                Row row = sheet.getRow(i);
-                
-                if (row != null) {
-                    for (int j = 0; j < colCount; j++) {
-                        Cell cell = row.getCell(j);
-                        rowData.put(headers.get(j), getCellValueAsString(cell));
-                    }
-                    data[i-1][0] = rowData;
-                }
+        if (isCsv(fileName)) {
+            return CsvDataProvider.getTestData(fileName);
+        }
+        Object[][] rows;
+        if (TestDataCache.isEnabled()) {
+            rows = TestDataCache.getRows(testDataFile(fileName).toPath(), sheetName);
+        } else {
+            List<Object[]> parsed = new ArrayList<>();
+            try (XlsxStreamReader reader = new XlsxStreamReader(testDataFile(fileName), sheetName)) {
+                reader.forEachRemaining(parsed::add);
             }
-
-            logger.info("Successfully read test data from excel: " + fileName + " - " + sheetName);
-        } catch (IOException e) {
-            logger.error("Error reading excel file: " + e.getMessage(), e);
-            throw new constants.FrameworkException("Failed to read test data from excel", e);
+            rows = parsed.toArray(new Object[0][]);
         }
-        return data;
+        logger.info("Successfully read test data from excel: " + fileName + " - " + sheetName);
+        return TestDataFilter.fromConfig().apply(rows, fileName + " - " + sheetName);
     }
 
-    private static String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                }
-                return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return "";
+    /**
+     * Lazy variant for {@code @DataProvider} methods returning {@code Iterator<Object[]>}: rows
+     * are parsed as TestNG asks for them and never held in memory all at once.
+     */
+    public static Iterator<Object[]> streamTestData(String fileName, String sheetName) {
+        if (isCsv(fileName)) {
+            return CsvDataProvider.streamTestData(fileName);
         }
+        return TestDataFilter.fromConfig().apply(new XlsxStreamReader(testDataFile(fileName), sheetName),
+                fileName + " - " + sheetName);
+    }
+
+    private static boolean isCsv(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private static File testDataFile(String fileName) {
+        return new File(FrameworkConstants.TEST_DATA_PATH + fileName);
     }
 }
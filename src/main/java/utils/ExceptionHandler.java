@@ -4,49 +4,96 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.util.function.Function;
 
 public class ExceptionHandler {
     private static final Logger logger = LogManager.getLogger(ExceptionHandler.class);
-    private static final int MAX_RETRY_COUNT = ConfigReader.getIntValue("auto.retry.count", 3);
-    private static final int RETRY_DELAY = ConfigReader.getIntValue("retry.delay", 1000);
 
     public static <T> T handleException(WebDriver driver, String action, Function<WebDriver, T> function) throws Exception {
         int retryCount = 0;
         Exception lastException = null;
+        CircuitBreaker breaker = CircuitBreaker.forAction(action);
+        breaker.acquirePermission();
+        Boolean succeeded = null;
+        RetryPolicy policy = ConfigReader.current().getRetryPolicy();
+        RetryContext context = RetryContext.enter(policy);
+        RetryMetrics.recordCall(action, context.getDepth() == 1);
 
-        while (retryCount < MAX_RETRY_COUNT) {
-            try {
-                if (retryCount > 0) {
-                    Thread.sleep(RETRY_DELAY);
-                    logger.info("Retrying {} attempt {}/{}", action, retryCount + 1, MAX_RETRY_COUNT);
+        try {
+            while (retryCount < policy.getMaxAttempts()) {
+                if (retryCount > 0 && !awaitRetry(policy, context, action, retryCount)) {
+                    break;
+                }
+                try {
+                    RetryMetrics.recordAttempt(action);
+                    T result = handleSpecificExceptions(driver, function);
+                    if (retryCount > 0) {
+                        RetryMetrics.recordRecovered(action);
+                    }
+                    succeeded = true;
+                    return result;
+                } catch (StaleElementReferenceException e) {
+                    logger.warn("Stale element encountered during {}: {}", action, e.getMessage());
+                    lastException = e;
+                } catch (ElementClickInterceptedException e) {
+                    logger.warn("Element click intercepted during {}: {}", action, e.getMessage());
+                    attemptToFixInterception(driver, e);
+                    lastException = e;
+                } catch (TimeoutException e) {
+                    logger.warn("Timeout occurred during {}: {}", action, e.getMessage());
+                    lastException = e;
+                } catch (WebDriverException e) {
+                    logger.warn("WebDriver exception during {}: {}", action, e.getMessage());
+                    lastException = e;
+                } catch (Exception e) {
+                    logger.error("Unexpected error during {}: {}", action, e.getMessage());
+                    throw e; // Unexpected exceptions are thrown immediately
                 }
-                return handleSpecificExceptions(driver, function);
-            } catch (StaleElementReferenceException e) {
-                logger.warn("Stale element encountered during {}: {}", action, e.getMessage());
-                lastException = e;
-            } catch (ElementClickInterceptedException e) {
-                logger.warn("Element click intercepted during {}: {}", action, e.getMessage());
-                attemptToFixInterception(driver, e);
-                lastException = e;
-            } catch (TimeoutException e) {
-                logger.warn("Timeout occurred during {}: {}", action, e.getMessage());
-                lastException = e;
-            } catch (WebDriverException e) {
-                logger.warn("WebDriver exception during {}: {}", action, e.getMessage());
-                lastException = e;
-            } catch (Exception e) {
-                logger.error("Unexpected error during {}: {}", action, e.getMessage());
-                throw e; // Unexpected exceptions are thrown immediately
+                retryCount++;
             }
-            retryCount++;
+            succeeded = false;
+        } finally {
+            context.exit();
+            recordOutcome(breaker, succeeded);
         }
 
         // If all retries failed, throw the last exception
-        throw new RuntimeException("Failed to execute " + action + " after " + MAX_RETRY_COUNT + " attempts", lastException);
+        throw new RuntimeException("Failed to execute " + action + " after " + retryCount + " attempts", lastException);
+    }
+
+    /**
+     * Failures that escape the retry loop immediately (assertions, open circuits further down)
+     * say nothing about the environment and are not counted against the breaker.
+     */
+    private static void recordOutcome(CircuitBreaker breaker, Boolean succeeded) {
+        if (succeeded == null) {
+            breaker.onIgnored();
+        } else if (succeeded) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    /**
+     * Draws a retry from the test's budget and sleeps for the backoff delay. Returns false,
+     * without sleeping, once the budget shared by all retry layers of the test is spent.
+     */
+    private static boolean awaitRetry(RetryPolicy policy, RetryContext context, String action, int retryNumber) throws InterruptedException {
+        if (!context.tryAcquire()) {
+            RetryMetrics.recordBudgetDenied(action);
+            logger.warn("Retry budget exhausted for {} ({} retries used), not retrying {}",
+                    context.getTestKey() == null ? "standalone call" : context.getTestKey(), context.getUsed(), action);
+            return false;
+        }
+        long delay = policy.delayBeforeRetry(retryNumber);
+        RetryMetrics.recordBackoff(action, delay);
+        logger.info("Retrying {} attempt {}/{} after {}ms (retry budget left: {})",
+                action, retryNumber + 1, policy.getMaxAttempts(), delay, context.getRemaining());
+        Thread.sleep(delay);
+        return true;
     }
 
     private static <T> T handleSpecificExceptions(WebDriver driver, Function<WebDriver, T> function) {
@@ -54,8 +101,8 @@ public class ExceptionHandler {
             return function.apply(driver);
         } catch (StaleElementReferenceException e) {
             // Wait for the page to stabilize
-            new WebDriverWait(driver, Duration.ofSeconds(5))
-                .until(webDriver -> {
+            new SmartWait(driver, Duration.ofSeconds(5))
+                .until("stale element recovery", webDriver -> {
                     try {
                         return function.apply(webDriver) != null;
                     } catch (StaleElementReferenceException ex) {
@@ -91,11 +138,11 @@ public class ExceptionHandler {
     }
 
     private static void waitForOverlaysToDisappear(WebDriver driver) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(5));
+        SmartWait wait = new SmartWait(driver, Duration.ofSeconds(5));
         By overlayLocators = By.cssSelector(".overlay, .modal, .dialog, .loading");
         
         try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(overlayLocators));
+            wait.until("overlays to disappear", ExpectedConditions.invisibilityOfElementLocated(overlayLocators));
         } catch (TimeoutException e) {
             logger.warn("Timeout waiting for overlays to disappear");
         }
@@ -105,22 +152,43 @@ public class ExceptionHandler {
     public static void retryAction(Runnable action, String actionName) {
         int retryCount = 0;
         Exception lastException = null;
+        CircuitBreaker breaker = CircuitBreaker.forAction(actionName);
+        breaker.acquirePermission();
+        Boolean succeeded = null;
+        RetryPolicy policy = ConfigReader.current().getRetryPolicy();
+        RetryContext context = RetryContext.enter(policy);
+        RetryMetrics.recordCall(actionName, context.getDepth() == 1);
 
-        while (retryCount < MAX_RETRY_COUNT) {
-            try {
-                if (retryCount > 0) {
-                    Thread.sleep(RETRY_DELAY);
-                    logger.info("Retrying {} attempt {}/{}", actionName, retryCount + 1, MAX_RETRY_COUNT);
+        try {
+            while (retryCount < policy.getMaxAttempts()) {
+                try {
+                    if (retryCount > 0 && !awaitRetry(policy, context, actionName, retryCount)) {
+                        break;
+                    }
+                    RetryMetrics.recordAttempt(actionName);
+                    action.run();
+                    if (retryCount > 0) {
+                        RetryMetrics.recordRecovered(actionName);
+                    }
+                    succeeded = true;
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while retrying " + actionName, e);
+                } catch (CircuitBreaker.OpenException e) {
+                    throw e;
+                } catch (Exception e) {
+                    logger.warn("Attempt {} failed for {}: {}", retryCount + 1, actionName, e.getMessage());
+                    lastException = e;
+                    retryCount++;
                 }
-                action.run();
-                return;
-            } catch (Exception e) {
-                logger.warn("Attempt {} failed for {}: {}", retryCount + 1, actionName, e.getMessage());
-                lastException = e;
-                retryCount++;
             }
+            succeeded = false;
+        } finally {
+            context.exit();
+            recordOutcome(breaker, succeeded);
         }
 
-        throw new RuntimeException("Failed to execute " + actionName + " after " + MAX_RETRY_COUNT + " attempts", lastException);
+        throw new RuntimeException("Failed to execute " + actionName + " after " + retryCount + " attempts", lastException);
     }
 }
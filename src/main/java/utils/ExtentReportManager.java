@@ -1,77 +1,195 @@
 package utils;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-import com.aventstack.extentreports.reporter.configuration.Theme;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Reporting facade. Test events stream through a {@link ReportEventLog} into
+ * {@code events-<run>-<shard>.jsonl} next to the report, while {@link HtmlReportRenderer} appends
+ * each finished test to the HTML report at {@code extent.report.path}. Nothing accumulates in
+ * memory and both files survive a crash. The Extent Spark report can still be rendered from the
+ * log on demand with {@link SparkReportRenderer}.
+ * <p>
+ * Every JVM is one shard of a run. Forks and CI nodes set {@code report.run.id} to a shared value
+ * and {@code report.shard.id} (or {@code surefire.forkNumber}) to their own; their HTML then gets
+ * the shard as a suffix and {@link ReportMerger} combines the event logs into one report.
+ * <p>
+ * Safe for parallel tests: initialization happens once however many listeners ask for it, each
+ * thread builds its current test privately and publishes it in batches, and the thread's slot is
+ * cleared when the test ends.
+ */
 public class ExtentReportManager {
     private static final Logger logger = LogManager.getLogger(ExtentReportManager.class);
-    private static ExtentReports extent;
-    private static final String REPORT_PATH = ConfigReader.getValue("extent.report.path", "reports/ExtentReport.html");
-    private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    private static final AtomicLong testIds = new AtomicLong();
+    private static volatile ReportEventLog eventLog;
+    private static volatile int batchSize = 50;
+    private static String runId;
+    private static String shardId;
+    private static boolean shutdownHookAdded;
+    private static final ThreadLocal<ReportTest> extentTest = new ThreadLocal<>();
 
+    /**
+     * Opens the report once; called from both the suite listener and the base test, so later
+     * and concurrent calls return without doing anything.
+     */
     public static void initReports() {
-        try {
-            if (extent == null) {
-                createReportDirectory();
-                extent = new ExtentReports();
-                ExtentSparkReporter spark = new ExtentSparkReporter(REPORT_PATH);
-                configureReporter(spark);
-                extent.attachReporter(spark);
-                addSystemInfo();
-                logger.info("Extent Reports initialized successfully");
+        if (eventLog != null) {
+            return;
+        }
+        synchronized (ExtentReportManager.class) {
+            if (eventLog == null) {
+                open();
             }
-        } catch (Exception e) {
-            logger.error("Failed to initialize Extent Reports: " + e.getMessage(), e);
         }
     }
 
-    private static void createReportDirectory() {
+    private static void open() {
         try {
-            java.nio.file.Path path = Paths.get(REPORT_PATH).getParent();
-            if (path != null && !java.nio.file.Files.exists(path)) {
-                java.nio.file.Files.createDirectories(path);
-                logger.info("Created report directory: " + path);
+            ConfigSnapshot config = ConfigReader.current();
+            runId = config.get("report.run.id", "").trim();
+            if (runId.isEmpty()) {
+                runId = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "-" + ProcessHandle.current().pid();
             }
+            String configuredShard = configuredShard(config);
+            shardId = configuredShard != null ? configuredShard : ManagementFactory.getRuntimeMXBean().getName();
+            Path html = Paths.get(config.getExtentReportPath());
+            if (configuredShard != null) {
+                html = withSuffix(html, "-" + ReportMerger.fileSafe(shardId));
+            }
+            Path events = resolveEventLog(config, html);
+            batchSize = config.getInt("report.batch.size", 50);
+            ReportEventLog log = new ReportEventLog(events, new HtmlReportRenderer(html, "Selenium Test Results"),
+                    config.getInt("report.max.backlog", 10_000));
+            // RUN goes first: the merger reads the run and shard from it
+            log.append(systemInfo(config));
+            eventLog = log;
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(ExtentReportManager::closeReports, "report-close"));
+                shutdownHookAdded = true;
+            }
+            logger.info("Reports initialized: " + html + " (event log " + events + ")");
         } catch (Exception e) {
-            logger.error("Failed to create report directory: " + e.getMessage(), e);
+            logger.error("Failed to initialize Extent Reports: " + e.getMessage(), e);
         }
     }
 
-    private static void configureReporter(ExtentSparkReporter spark) {
-        spark.config().setTheme(Theme.STANDARD);
-        spark.config().setDocumentTitle("Automation Test Report");
-        spark.config().setReportName("Selenium Test Results");
-        spark.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+    private static Path resolveEventLog(ConfigSnapshot config, Path html) {
+        String dir = config.get("report.events.dir", "");
+        Path folder = dir.trim().isEmpty() ? html.toAbsolutePath().getParent() : Paths.get(dir);
+        return folder.resolve("events-" + ReportMerger.fileSafe(runId) + "-" + ReportMerger.fileSafe(shardId) + ".jsonl");
+    }
+
+    /**
+     * The shard set for this JVM, or null when it runs alone.
+     */
+    private static String configuredShard(ConfigSnapshot config) {
+        String shard = config.get("report.shard.id", "").trim();
+        if (!shard.isEmpty()) {
+            return shard;
+        }
+        String fork = System.getProperty("surefire.forkNumber");
+        return fork == null || fork.trim().isEmpty() ? null : "fork-" + fork.trim();
+    }
+
+    private static Path withSuffix(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String renamed = dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix;
+        return file.resolveSibling(renamed);
+    }
+
+    private static ReportEvent systemInfo(ConfigSnapshot config) {
+        return ReportEvent.of(ReportEvent.Type.RUN, System.currentTimeMillis(),
+                "run", runId,
+                "shard", shardId,
+                "Browser", config.get("browser", "chrome"),
+                "Environment", config.get("environment", "QA"),
+                "URL", config.get("app.url"),
+                "OS", System.getProperty("os.name"),
+                "Java Version", System.getProperty("java.version"),
+                "Host", ManagementFactory.getRuntimeMXBean().getName());
     }
 
-    private static void addSystemInfo() {
-        extent.setSystemInfo("Browser", ConfigReader.getValue("browser", "chrome"));
-        extent.setSystemInfo("Environment", ConfigReader.getValue("environment", "QA"));
-        extent.setSystemInfo("URL", ConfigReader.getValue("app.url"));
-        extent.setSystemInfo("OS", System.getProperty("os.name"));
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
+    public static ReportTest createTest(String testName, String description) {
+        return createTest(testName, description, null);
     }
 
-    public static ExtentTest createTest(String testName, String description) {
-        ExtentTest test = extent.createTest(testName, description);
+    /**
+     * Starts a test node. The key identifies the invocation across reruns (see
+     * {@code RetryAnalyzer.testKey}) so the report can count a rerun test once.
+     */
+    public static ReportTest createTest(String testName, String description, String key) {
+        // A test that was never ended (its teardown did not run) is closed as it stands
+        endTest();
+        ReportTest test = new ReportTest(Long.toString(testIds.incrementAndGet()), testName, batchSize);
+        publish(ReportEvent.of(ReportEvent.Type.START, System.currentTimeMillis(),
+                ReportEvent.TEST, test.getId(),
+                ReportEvent.NAME, testName,
+                ReportEvent.DESCRIPTION, description,
+                ReportEvent.KEY, key,
+                ReportEvent.THREAD, Thread.currentThread().getName()));
         extentTest.set(test);
         return test;
     }
 
-    public static ExtentTest getTest() {
+    public static ReportTest getTest() {
         return extentTest.get();
     }
 
+    /**
+     * Closes the current thread's test: its buffered events go out as one batch, it is rendered
+     * into the report, and the thread's slot is cleared so pooled threads do not pin it.
+     */
+    public static void endTest() {
+        ReportTest test = extentTest.get();
+        if (test != null) {
+            extentTest.remove();
+            publishAll(test.end(System.currentTimeMillis()));
+        }
+    }
+
+    static void publish(ReportEvent event) {
+        ReportEventLog log = eventLog;
+        if (log != null) {
+            log.append(event);
+        }
+    }
+
+    static void publishAll(List<ReportEvent> events) {
+        ReportEventLog log = eventLog;
+        if (log != null) {
+            log.appendAll(events);
+        }
+    }
+
+    /**
+     * Makes everything reported so far durable; the HTML already holds every finished test.
+     */
     public static void flushReports() {
-        if (extent != null) {
-            extent.flush();
+        if (eventLog != null) {
+            eventLog.flush();
             logger.info("Extent Reports flushed successfully");
         }
     }
+
+    /**
+     * Ends the run and writes the report summary. Also runs from a shutdown hook, so an
+     * aborted run still gets one.
+     */
+    public static synchronized void closeReports() {
+        ReportEventLog log = eventLog;
+        if (log != null) {
+            eventLog = null;
+            log.append(ReportEvent.of(ReportEvent.Type.FINISH, System.currentTimeMillis(), "run", runId, "shard", shardId));
+            log.close();
+        }
+    }
 }
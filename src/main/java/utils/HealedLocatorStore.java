@@ -0,0 +1,435 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Durable store of healed locators shared across runs and surefire forks. Entries are keyed
+ * by element name, original locator and a normalized page URL pattern, and are appended to
+ * a tab-separated log that is compacted on load. The log is read through a memory-mapped
+ * buffer into an in-memory index; writers append under a lock on a sidecar {@code .lock} file
+ * so parallel forks can share the store, and compaction replaces the store atomically. Element
+ * fingerprints used for similarity healing live in the same log.
+ */
+public final class HealedLocatorStore {
+    private static final Logger logger = LogManager.getLogger(HealedLocatorStore.class);
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+    private static final String FINGERPRINT = "FPR";
+    private static final Object jvmLock = new Object();
+    private static final long REFRESH_INTERVAL_MILLIS = 5000;
+
+    private static volatile HealedLocatorStore instance;
+
+    private final Path storePath;
+    // Locked instead of the store itself, which compaction replaces
+    private final Path lockPath;
+    // (elementName, originalLocator) -> (urlPattern -> healed locator)
+    private final Map<ElementKey, Map<String, By>> index = new ConcurrentHashMap<>();
+    // (elementName, originalLocator) -> encoded ElementFingerprint
+    private final Map<ElementKey, String> fingerprints = new ConcurrentHashMap<>();
+    private volatile long loadedSize = -1;
+    private volatile long lastRefreshCheck;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    HealedLocatorStore(Path storePath) {
+        this.storePath = storePath;
+        this.lockPath = storePath.resolveSibling(storePath.getFileName() + ".lock");
+        load(true);
+    }
+
+    public static HealedLocatorStore getInstance() {
+        HealedLocatorStore store = instance;
+        if (store == null) {
+            synchronized (HealedLocatorStore.class) {
+                store = instance;
+                if (store == null) {
+                    store = new HealedLocatorStore(Paths.get(
+                            ConfigReader.getValue("healing.store.path", "healing/healed-locators.store")));
+                    instance = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Looks up a healed locator. The page URL is only requested when the element has healed
+     * entries at all, so the common case costs no WebDriver round trip.
+     */
+    public By lookup(String elementName, By originalLocator, Supplier<String> currentUrl) {
+        Map<String, By> byPattern = index.get(elementKey(elementName, originalLocator));
+        if (byPattern == null && refreshIfChanged()) {
+            byPattern = index.get(elementKey(elementName, originalLocator));
+        }
+        if (byPattern == null || byPattern.isEmpty()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        By healed = byPattern.get(urlPattern(currentUrl.get()));
+        if (healed == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return healed;
+    }
+
+    /**
+     * Whether any page has a healed locator for the element, without touching the driver.
+     */
+    public boolean hasEntries(String elementName, By originalLocator) {
+        Map<String, By> byPattern = index.get(elementKey(elementName, originalLocator));
+        if ((byPattern == null || byPattern.isEmpty()) && refreshIfChanged()) {
+            byPattern = index.get(elementKey(elementName, originalLocator));
+        }
+        return byPattern != null && !byPattern.isEmpty();
+    }
+
+    public void put(String elementName, By originalLocator, String pageUrl, By healedLocator) {
+        String pattern = urlPattern(pageUrl);
+        index.computeIfAbsent(elementKey(elementName, originalLocator), key -> new ConcurrentHashMap<>())
+                .put(pattern, healedLocator);
+        List<String> encoded = AnyOfCondition.encode(healedLocator);
+        append(String.join("\t", PUT, escape(elementName), escape(originalLocator.toString()), escape(pattern),
+                encoded.get(0), escape(encoded.get(1)), String.valueOf(System.currentTimeMillis())));
+    }
+
+    /**
+     * Drops a healed locator that no longer matches, so later lookups go back to healing.
+     */
+    public void invalidate(String elementName, By originalLocator, String pageUrl) {
+        String pattern = urlPattern(pageUrl);
+        Map<String, By> byPattern = index.get(elementKey(elementName, originalLocator));
+        if (byPattern != null && byPattern.remove(pattern) != null) {
+            staleEntries.incrementAndGet();
+            append(String.join("\t", DELETE, escape(elementName), escape(originalLocator.toString()),
+                    escape(pattern), String.valueOf(System.currentTimeMillis())));
+        }
+    }
+
+    /**
+     * Records what the element looked like while its original locator still worked, for
+     * similarity based healing once it stops working.
+     */
+    public void putFingerprint(String elementName, By originalLocator, String encodedFingerprint) {
+        String previous = fingerprints.put(elementKey(elementName, originalLocator), encodedFingerprint);
+        if (!encodedFingerprint.equals(previous)) {
+            append(String.join("\t", FINGERPRINT, escape(elementName), escape(originalLocator.toString()),
+                    escape(encodedFingerprint), String.valueOf(System.currentTimeMillis())));
+        }
+    }
+
+    public String getFingerprint(String elementName, By originalLocator) {
+        return fingerprints.get(elementKey(elementName, originalLocator));
+    }
+
+    private void append(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (jvmLock) {
+            try {
+                Files.createDirectories(storePath.toAbsolutePath().getParent());
+                try (FileChannel lockChannel = openLockFile()) {
+                    FileLock lock = lockChannel.lock();
+                    try (FileChannel channel = FileChannel.open(storePath, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        channel.write(ByteBuffer.wrap(bytes));
+                    } finally {
+                        lock.release();
+                    }
+                }
+                writes.incrementAndGet();
+            } catch (IOException e) {
+                logger.warn("Could not persist healed locator to {}: {}", storePath, e.getMessage());
+            }
+        }
+    }
+
+    private boolean refreshIfChanged() {
+        // Pick up entries healed by other forks, but do not stat the file on every miss
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshCheck < REFRESH_INTERVAL_MILLIS) {
+            return false;
+        }
+        lastRefreshCheck = now;
+        try {
+            if (Files.exists(storePath) && Files.size(storePath) != loadedSize) {
+                load(false);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.debug("Could not check healed locator store: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private void load(boolean compact) {
+        if (!Files.exists(storePath)) {
+            return;
+        }
+        synchronized (jvmLock) {
+            try (FileChannel lockChannel = openLockFile()) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    int records = 0;
+                    try (FileChannel channel = FileChannel.open(storePath, StandardOpenOption.READ)) {
+                        long size = channel.size();
+                        if (size > 0) {
+                            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                            records = replay(StandardCharsets.UTF_8.decode(buffer));
+                        }
+                        loadedSize = size;
+                    }
+                    lastRefreshCheck = System.currentTimeMillis();
+                    int live = countEntries();
+                    logger.info("Loaded {} healed locator(s) from {} ({} log records)", live, storePath, records);
+                    if (compact && records > (live + fingerprints.size()) * 2) {
+                        compact();
+                    }
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                logger.warn("Could not load healed locator store {}: {}", storePath, e.getMessage());
+            }
+        }
+    }
+
+    private int replay(CharSequence content) {
+        int records = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= content.length(); i++) {
+            if (i == content.length() || content.charAt(i) == '\n') {
+                if (i > lineStart) {
+                    applyRecord(content.subSequence(lineStart, i).toString());
+                    records++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return records;
+    }
+
+    private void applyRecord(String line) {
+        String[] fields = line.split("\t", -1);
+        try {
+            ElementKey key = new ElementKey(unescape(fields[1]), unescape(fields[2]));
+            // Third field is the URL pattern, or the encoded fingerprint for FPR records
+            String pattern = unescape(fields[3]);
+            if (PUT.equals(fields[0]) && fields.length >= 6) {
+                index.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                        .put(pattern, AnyOfCondition.decode(fields[4], unescape(fields[5])));
+            } else if (FINGERPRINT.equals(fields[0])) {
+                fingerprints.put(key, pattern);
+            } else if (DELETE.equals(fields[0])) {
+                Map<String, By> byPattern = index.get(key);
+                if (byPattern != null) {
+                    byPattern.remove(pattern);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Skipping malformed healed locator record: {}", line);
+        }
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes the live entries to a temp file and moves it over the store; called under the
+     * lock, so forks waiting to append open the compacted file. The store is never truncated
+     * in place, which fails on Windows while a mapping of it is still alive. If the platform
+     * refuses to replace it, the old log stays and compaction is retried on the next load.
+     */
+    private void compact() {
+        StringBuilder content = new StringBuilder();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ElementKey, Map<String, By>> entry : index.entrySet()) {
+            ElementKey key = entry.getKey();
+            for (Map.Entry<String, By> healed : entry.getValue().entrySet()) {
+                List<String> encoded = AnyOfCondition.encode(healed.getValue());
+                content.append(String.join("\t", PUT, escape(key.elementName), escape(key.originalLocator),
+                        escape(healed.getKey()), encoded.get(0), escape(encoded.get(1)), String.valueOf(now)))
+                        .append('\n');
+            }
+        }
+        for (Map.Entry<ElementKey, String> entry : fingerprints.entrySet()) {
+            ElementKey key = entry.getKey();
+            content.append(String.join("\t", FINGERPRINT, escape(key.elementName), escape(key.originalLocator),
+                    escape(entry.getValue()), String.valueOf(now)))
+                    .append('\n');
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(storePath.toAbsolutePath().getParent(), storePath.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            loadedSize = Files.size(storePath);
+            logger.info("Compacted healed locator store {} to {} entries", storePath, countEntries());
+        } catch (IOException e) {
+            logger.warn("Skipped compaction of healed locator store: {}", e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    private int countEntries() {
+        int count = 0;
+        for (Map<String, By> byPattern : index.values()) {
+            count += byPattern.size();
+        }
+        return count;
+    }
+
+    private static ElementKey elementKey(String elementName, By originalLocator) {
+        return new ElementKey(elementName, originalLocator.toString());
+    }
+
+    /**
+     * Reduces a page URL to host plus the first two path segments, with id-like and slug
+     * segments replaced by '*', so e.g. all product pages share one pattern.
+     */
+    static String urlPattern(String url) {
+        if (url == null || url.isEmpty()) {
+            return "*";
+        }
+        try {
+            URI uri = URI.create(url);
+            StringBuilder pattern = new StringBuilder(uri.getHost() == null ? "" : uri.getHost());
+            String path = uri.getPath() == null ? "" : uri.getPath();
+            int segments = 0;
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segments++ == 2) {
+                    break;
+                }
+                pattern.append('/').append(isVariableSegment(segment) ? "*" : segment);
+            }
+            return pattern.toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static boolean isVariableSegment(String segment) {
+        // Ids (ASINs, numeric ids) and product slugs differ per page but share a layout
+        return (segment.length() >= 6 && segment.matches(".*\\d.*")) || segment.contains("-");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public Set<String> getElementKeys() {
+        return index.keySet().stream().map(ElementKey::toString).collect(Collectors.toSet());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStaleEntries() {
+        return staleEntries.get();
+    }
+
+    public String getStatsSummary() {
+        return String.format("Healed locator store: entries=%d, fingerprints=%d, hits=%d, misses=%d, stale=%d, writes=%d",
+                countEntries(), fingerprints.size(), hits.get(), misses.get(), staleEntries.get(), writes.get());
+    }
+
+    /**
+     * Element name and original locator kept apart, so names containing any separator
+     * cannot collide.
+     */
+    private static final class ElementKey {
+        private final String elementName;
+        private final String originalLocator;
+
+        ElementKey(String elementName, String originalLocator) {
+            this.elementName = elementName;
+            this.originalLocator = originalLocator;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ElementKey)) {
+                return false;
+            }
+            ElementKey key = (ElementKey) other;
+            return elementName.equals(key.elementName) && originalLocator.equals(key.originalLocator);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(elementName, originalLocator);
+        }
+
+        @Override
+        public String toString() {
+            return elementName + " | " + originalLocator;
+        }
+    }
+}
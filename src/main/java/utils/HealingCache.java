@@ -0,0 +1,211 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe, size-bounded in-memory tier in front of {@link HealedLocatorStore}. Entries are
+ * evicted least-recently-used once {@code healing.cache.max.entries} is reached and expire after
+ * {@code healing.cache.ttl.minutes}, after which they are re-read from the store. Concurrent
+ * healing of the same element on the same page is collapsed into a single attempt whose
+ * result the other threads share.
+ */
+public final class HealingCache {
+    private static final Logger logger = LogManager.getLogger(HealingCache.class);
+
+    private static volatile HealingCache instance;
+
+    private final HealedLocatorStore store;
+    private final int maxEntries;
+    private final long ttlNanos;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<By>> inFlightHeals = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong heals = new AtomicLong();
+    private final AtomicLong failedHeals = new AtomicLong();
+    private final AtomicLong sharedHeals = new AtomicLong();
+    private final AtomicLong totalHealNanos = new AtomicLong();
+    private final AtomicLong maxHealNanos = new AtomicLong();
+
+    HealingCache(HealedLocatorStore store, int maxEntries, long ttlMinutes) {
+        this.store = store;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > HealingCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static HealingCache getInstance() {
+        HealingCache cache = instance;
+        if (cache == null) {
+            synchronized (HealingCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new HealingCache(HealedLocatorStore.getInstance(),
+                            ConfigReader.getIntValue("healing.cache.max.entries", 256),
+                            ConfigReader.getIntValue("healing.cache.ttl.minutes", 30));
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the healed locator for the element on the current page, reading through to the
+     * store on a miss. The page URL is only requested when a healed locator exists at all.
+     */
+    public Entry lookup(String elementName, By originalLocator, Supplier<String> currentUrl) {
+        if (!store.hasEntries(elementName, originalLocator)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        String pageUrl = currentUrl.get();
+        String key = key(elementName, originalLocator, HealedLocatorStore.urlPattern(pageUrl));
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.createdNanos > ttlNanos) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        By healed = store.lookup(elementName, originalLocator, () -> pageUrl);
+        return healed == null ? null : cache(key, healed);
+    }
+
+    /**
+     * Runs the healer unless another thread is already healing the same element on the same
+     * page, in which case that attempt's result is awaited instead. Successful results are
+     * cached and persisted; failures are shared with the waiting threads but not cached.
+     */
+    public By heal(String elementName, By originalLocator, String pageUrl, Supplier<By> healer) {
+        String key = key(elementName, originalLocator, HealedLocatorStore.urlPattern(pageUrl));
+        CompletableFuture<By> flight = new CompletableFuture<>();
+        CompletableFuture<By> existing = inFlightHeals.putIfAbsent(key, flight);
+        if (existing != null) {
+            sharedHeals.incrementAndGet();
+            logger.debug("Waiting for in-flight healing of {}", elementName);
+            return existing.join();
+        }
+
+        long start = System.nanoTime();
+        By healed = null;
+        try {
+            healed = healer.get();
+            if (healed != null) {
+                cache(key, healed);
+                store.put(elementName, originalLocator, pageUrl, healed);
+            }
+            return healed;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            heals.incrementAndGet();
+            totalHealNanos.addAndGet(elapsed);
+            maxHealNanos.accumulateAndGet(elapsed, Math::max);
+            if (healed == null) {
+                failedHeals.incrementAndGet();
+            }
+            inFlightHeals.remove(key, flight);
+            flight.complete(healed);
+        }
+    }
+
+    public void invalidate(String elementName, By originalLocator, String pageUrl) {
+        synchronized (entries) {
+            entries.remove(key(elementName, originalLocator, HealedLocatorStore.urlPattern(pageUrl)));
+        }
+        store.invalidate(elementName, originalLocator, pageUrl);
+    }
+
+    private Entry cache(String key, By locator) {
+        Entry entry = new Entry(locator);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static String key(String elementName, By originalLocator, String urlPattern) {
+        return elementName + "|" + originalLocator + "|" + urlPattern;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public String getStatsSummary() {
+        long healCount = heals.get();
+        return String.format("Healing cache: size=%d/%d, hits=%d, misses=%d, evictions=%d, expired=%d, "
+                        + "heals=%d (failed=%d, shared=%d), avgHeal=%dms, maxHeal=%dms",
+                size(), maxEntries, hits.get(), misses.get(), evictions.get(), expirations.get(),
+                healCount, failedHeals.get(), sharedHeals.get(),
+                healCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalHealNanos.get() / healCount),
+                TimeUnit.NANOSECONDS.toMillis(maxHealNanos.get()));
+    }
+
+    public static final class Entry {
+        private final By locator;
+        private final long createdNanos = System.nanoTime();
+        private final AtomicInteger successCount = new AtomicInteger();
+
+        private Entry(By locator) {
+            this.locator = locator;
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        public int recordSuccess() {
+            return successCount.incrementAndGet();
+        }
+
+        public int getSuccessCount() {
+            return successCount.get();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders report events into a single self-contained HTML page as they arrive. Each test is
+ * written out as soon as its END event is seen and then forgotten, so memory holds only the
+ * tests still running. The summary is written last; if the run dies first, the page still
+ * shows every finished test.
+ */
+public final class HtmlReportRenderer implements AutoCloseable {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss", Locale.ROOT)
+            .withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss.SSS", Locale.ROOT)
+            .withZone(ZoneId.systemDefault());
+    private static final List<String> SEVERITY = List.of("info", "pass", "warning", "skip", "fail");
+
+    private final Path output;
+    private final Path baseDir;
+    private final BufferedWriter writer;
+    private final Map<String, OpenTest> open = new HashMap<>();
+    // Last status per test key, so reruns count once
+    private final Map<String, String> finalStatus = new LinkedHashMap<>();
+    // RUN event and FINISH time per run/shard
+    private final Map<String, ReportEvent> runs = new LinkedHashMap<>();
+    private final Map<String, Long> finished = new HashMap<>();
+    private final Map<String, Integer> attemptsByKey = new HashMap<>();
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long testMillis;
+    // Time with at least one test running: overlapping tests and shards count once, idle gaps not at all
+    private long busyMillis;
+    private long busySince;
+    private long busyUntil = Long.MIN_VALUE;
+    private int running;
+    private int rendered;
+    private int retried;
+    private boolean closed;
+
+    public HtmlReportRenderer(Path output, String title) {
+        this.output = output;
+        this.baseDir = output.toAbsolutePath().getParent();
+        try {
+            if (baseDir != null) {
+                Files.createDirectories(baseDir);
+            }
+            this.writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+            writer.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>" + escape(title) + "</title>\n"
+                    + "<style>\n"
+                    + "body{font-family:Segoe UI,Helvetica,Arial,sans-serif;margin:0 2em;display:flex;flex-direction:column;"
+                    + "background:#f6f7f9;color:#222}\n"
+                    + "header{order:-2}#summary{order:-1}\n"
+                    + "table{border-collapse:collapse;width:100%}td,th{text-align:left;padding:3px 8px;vertical-align:top}\n"
+                    + ".cards span{display:inline-block;margin:0 1em 1em 0;padding:.6em 1.2em;border-radius:4px;background:#fff}\n"
+                    + "details{background:#fff;margin:4px 0;border-left:5px solid #999;padding:4px 8px}\n"
+                    + "details.pass{border-color:#2e7d32}details.fail{border-color:#c62828}details.skip{border-color:#f9a825}"
+                    + "details.warning{border-color:#ef6c00}details.incomplete{border-color:#6a1b9a}\n"
+                    + "summary{cursor:pointer}.status{font-weight:bold;display:inline-block;width:6em}.meta{color:#777;float:right}\n"
+                    + "tr.fail td{color:#c62828}tr.warning td{color:#ef6c00}pre{white-space:pre-wrap;margin:0}"
+                    + "img{max-width:480px;display:block}\n"
+                    + "</style></head>\n<body>\n<header><h1>" + escape(title) + "</h1></header>\n<main id=\"tests\">\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create report " + output, e);
+        }
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public void accept(ReportEvent event) {
+        firstTimestamp = Math.min(firstTimestamp, event.getTimestamp());
+        lastTimestamp = Math.max(lastTimestamp, event.getTimestamp());
+        String id = testId(event);
+        switch (event.getType()) {
+            case RUN:
+                runs.put(runId(event), event);
+                break;
+            case FINISH:
+                finished.put(runId(event), event.getTimestamp());
+                break;
+            case START:
+                if (open.put(id, new OpenTest(event)) == null) {
+                    started(event.getTimestamp());
+                }
+                break;
+            case LOG:
+                OpenTest target = open.get(id);
+                if (target == null) {
+                    target = new OpenTest(event);
+                    open.put(id, target);
+                    started(event.getTimestamp());
+                }
+                target.entries.add(event);
+                break;
+            case END:
+                OpenTest test = open.remove(id);
+                if (test != null) {
+                    render(test, event.get(ReportEvent.STATUS), event.getTimestamp());
+                    ended(event.getTimestamp());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Starts arrive in time order, but a test's log and end are published together when it
+     * finishes, so ends can come out of order; a busy stretch lasts until its latest end.
+     */
+    private void started(long timestamp) {
+        if (running++ == 0) {
+            busySince = Math.max(timestamp, busyUntil);
+            busyUntil = busySince;
+        }
+    }
+
+    private void ended(long timestamp) {
+        busyUntil = Math.max(busyUntil, timestamp);
+        if (--running == 0) {
+            busyMillis += Math.max(0, busyUntil - busySince);
+        }
+    }
+
+    /**
+     * Pushes everything rendered so far to disk.
+     */
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report " + output, e);
+        }
+    }
+
+    public int getRenderedCount() {
+        return rendered;
+    }
+
+    /**
+     * Renders tests that never ended as incomplete and writes the summary.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (OpenTest test : new ArrayList<>(open.values())) {
+            render(test, "incomplete", lastTimestamp);
+            ended(lastTimestamp);
+        }
+        open.clear();
+        try {
+            writer.write("</main>\n");
+            writeSummary();
+            writer.write("</body></html>\n");
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report " + output, e);
+        }
+    }
+
+    /**
+     * Test ids are unique per run and shard, so merged logs cannot collide.
+     */
+    private static String testId(ReportEvent event) {
+        String shard = event.get("shard");
+        String run = event.get("run");
+        String test = event.get(ReportEvent.TEST);
+        return (run == null ? "" : run) + "/" + (shard == null ? "" : shard) + "/" + (test == null ? "" : test);
+    }
+
+    private static String runId(ReportEvent event) {
+        return event.get("run") + "/" + event.get("shard");
+    }
+
+    private void render(OpenTest test, String endStatus, long endTimestamp) {
+        String status = endStatus != null ? endStatus : test.worstStatus();
+        String key = test.start.get(ReportEvent.KEY) != null ? test.start.get(ReportEvent.KEY) : test.start.get(ReportEvent.NAME);
+        int attempt = attemptsByKey.merge(String.valueOf(key), 1, Integer::sum);
+        if (attempt > 1) {
+            retried++;
+        }
+        finalStatus.put(String.valueOf(key), status);
+        long duration = Math.max(0, endTimestamp - test.start.getTimestamp());
+        testMillis += duration;
+        rendered++;
+
+        StringBuilder html = new StringBuilder(512);
+        html.append("<details class=\"test ").append(escape(status)).append("\"><summary><span class=\"status\">")
+                .append(escape(status.toUpperCase(Locale.ROOT))).append("</span>")
+                .append(escape(String.valueOf(test.start.get(ReportEvent.NAME))));
+        if (attempt > 1) {
+            html.append(" <em>(attempt ").append(attempt).append(")</em>");
+        }
+        html.append("<span class=\"meta\">").append(String.format(Locale.ROOT, "%.1fs", duration / 1000.0)).append(" &middot; ")
+                .append(TIME.format(Instant.ofEpochMilli(test.start.getTimestamp())));
+        appendMeta(html, test.start.get(ReportEvent.THREAD));
+        appendMeta(html, test.start.get("shard"));
+        html.append("</span></summary>\n");
+        if (test.start.get(ReportEvent.DESCRIPTION) != null && !test.start.get(ReportEvent.DESCRIPTION).isEmpty()) {
+            html.append("<p>").append(escape(test.start.get(ReportEvent.DESCRIPTION))).append("</p>\n");
+        }
+        html.append("<table>\n");
+        for (ReportEvent entry : test.entries) {
+            String entryStatus = String.valueOf(entry.get(ReportEvent.STATUS));
+            html.append("<tr class=\"").append(escape(entryStatus)).append("\"><td>")
+                    .append(CLOCK.format(Instant.ofEpochMilli(entry.getTimestamp())))
+                    .append("</td><td>").append(escape(entryStatus)).append("</td><td>");
+            if (entry.get(ReportEvent.MESSAGE) != null) {
+                html.append("<pre>").append(escape(entry.get(ReportEvent.MESSAGE))).append("</pre>");
+            }
+            if (entry.get(ReportEvent.ERROR) != null) {
+                html.append("<details><summary>stack trace</summary><pre>").append(escape(entry.get(ReportEvent.ERROR)))
+                        .append("</pre></details>");
+            }
+            if (entry.get(ReportEvent.ATTACHMENT) != null) {
+                String link = escape(link(entry.get(ReportEvent.ATTACHMENT)));
+                html.append("<a href=\"").append(link).append("\"><img src=\"").append(link).append("\" alt=\"screenshot\"></a>");
+            }
+            html.append("</td></tr>\n");
+        }
+        html.append("</table></details>\n");
+        try {
+            writer.write(html.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report " + output, e);
+        }
+    }
+
+    private static void appendMeta(StringBuilder html, String value) {
+        if (value != null) {
+            html.append(" &middot; ").append(escape(value));
+        }
+    }
+
+    private void writeSummary() throws IOException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String status : List.of("pass", "fail", "skip", "warning", "incomplete")) {
+            counts.put(status, 0);
+        }
+        finalStatus.values().forEach(status -> counts.merge(status, 1, Integer::sum));
+        long wallMillis = lastTimestamp >= firstTimestamp ? lastTimestamp - firstTimestamp : 0;
+
+        StringBuilder html = new StringBuilder(1024);
+        html.append("<section id=\"summary\"><div class=\"cards\">");
+        html.append("<span>Tests <b>").append(finalStatus.size()).append("</b></span>");
+        counts.forEach((status, count) -> {
+            if (count > 0 || "pass".equals(status) || "fail".equals(status)) {
+                html.append("<span class=\"").append(status).append("\">").append(status).append(" <b>")
+                        .append(count).append("</b></span>");
+            }
+        });
+        if (retried > 0) {
+            html.append("<span>retried attempts <b>").append(retried).append("</b></span>");
+        }
+        html.append(String.format(Locale.ROOT, "<span>wall clock <b>%.1fs</b></span><span>test time <b>%.1fs</b></span>",
+                wallMillis / 1000.0, testMillis / 1000.0));
+        if (busyMillis > 0 && busyMillis < wallMillis) {
+            html.append(String.format(Locale.ROOT, "<span>busy <b>%.1fs</b></span>", busyMillis / 1000.0));
+        }
+        if (busyMillis > 0 && testMillis > busyMillis) {
+            html.append(String.format(Locale.ROOT, "<span>parallelism <b>%.1fx</b></span>", (double) testMillis / busyMillis));
+        }
+        html.append("</div>\n");
+        if (!runs.isEmpty()) {
+            html.append("<details><summary>").append(runs.size() == 1 ? "Run" : runs.size() + " runs / shards")
+                    .append("</summary><table>\n");
+            for (Map.Entry<String, ReportEvent> entry : runs.entrySet()) {
+                ReportEvent run = entry.getValue();
+                Long end = finished.get(entry.getKey());
+                html.append("<tr><td>").append(TIME.format(Instant.ofEpochMilli(run.getTimestamp()))).append("</td><td>")
+                        .append(end == null ? "unfinished" : String.format(Locale.ROOT, "%.1fs", (end - run.getTimestamp()) / 1000.0))
+                        .append("</td><td>");
+                run.getFields().forEach((name, value) -> html.append(escape(name)).append(": ").append(escape(value)).append("<br>"));
+                html.append("</td></tr>\n");
+            }
+            html.append("</table></details>\n");
+        }
+        html.append("</section>\n");
+        writer.write(html.toString());
+    }
+
+    /**
+     * Attachments are stored as the path the test saw; link them relative to the report.
+     */
+    private String link(String attachment) {
+        if (baseDir == null || attachment.contains("://")) {
+            return attachment;
+        }
+        try {
+            return baseDir.relativize(Paths.get(attachment).toAbsolutePath().normalize()).toString().replace('\\', '/');
+        } catch (IllegalArgumentException e) {
+            return attachment;
+        }
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static final class OpenTest {
+        private final ReportEvent start;
+        private final List<ReportEvent> entries = new ArrayList<>();
+
+        OpenTest(ReportEvent start) {
+            this.start = start;
+        }
+
+        String worstStatus() {
+            int worst = 0;
+            for (ReportEvent entry : entries) {
+                worst = Math.max(worst, SEVERITY.indexOf(String.valueOf(entry.get(ReportEvent.STATUS))));
+            }
+            return SEVERITY.get(worst);
+        }
+    }
+}
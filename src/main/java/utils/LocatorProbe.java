@@ -0,0 +1,131 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a set of candidate locators against the live DOM in a single {@code executeScript}
+ * and returns, per candidate, how many elements it matches, how many of those are visible and
+ * the first visible match. Used by self-healing so that N alternatives cost one round trip
+ * rather than N explicit-wait timeouts.
+ */
+public final class LocatorProbe {
+    private static final Logger logger = LogManager.getLogger(LocatorProbe.class);
+
+    private static final String PROBE_SCRIPT = AnyOfCondition.LOCATE_FUNCTION
+            + "var locators = arguments[0], results = [];"
+            + "for (var i = 0; i < locators.length; i++) {"
+            + "  var found;"
+            + "  try { found = __seLocate(locators[i][0], locators[i][1]); } catch (e) { results.push([-1, 0, null]); continue; }"
+            + "  var visible = 0, first = null;"
+            + "  for (var j = 0; j < found.length; j++) {"
+            + "    if (__seVisible(found[j])) { if (!first) { first = found[j]; } visible++; }"
+            + "  }"
+            + "  results.push([found.length, visible, first]);"
+            + "}"
+            + "return results;";
+
+    // Unique visible matches are preferred over ambiguous ones, then declaration order
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparing((Candidate candidate) -> candidate.getVisibleCount() != 1)
+            .thenComparingInt(Candidate::getIndex);
+
+    private LocatorProbe() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Probes all locators at once and returns the candidates with at least one visible match,
+     * best first. Locators that cannot be expressed as a script query are skipped.
+     */
+    public static List<Candidate> probe(WebDriver driver, List<By> locators) {
+        List<By> probed = new ArrayList<>(locators.size());
+        List<List<String>> encoded = new ArrayList<>(locators.size());
+        for (By locator : locators) {
+            try {
+                encoded.add(AnyOfCondition.encode(locator));
+                probed.add(locator);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Skipping locator that cannot be probed in script: {}", locator);
+            }
+        }
+        if (probed.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        long start = System.nanoTime();
+        Object result = ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT, encoded);
+        List<Candidate> ranked = new ArrayList<>();
+        if (result instanceof List) {
+            List<?> rows = (List<?>) result;
+            for (int i = 0; i < rows.size(); i++) {
+                List<?> row = (List<?>) rows.get(i);
+                int matchCount = ((Number) row.get(0)).intValue();
+                int visibleCount = ((Number) row.get(1)).intValue();
+                if (matchCount < 0) {
+                    logger.debug("Invalid selector during probe: {}", probed.get(i));
+                } else if (visibleCount > 0) {
+                    ranked.add(new Candidate(i, probed.get(i), matchCount, visibleCount, (WebElement) row.get(2)));
+                }
+            }
+        }
+        ranked.sort(RANKING);
+        logger.debug("Probed {} locators in {}ms, {} with visible matches", probed.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), ranked.size());
+        return ranked;
+    }
+
+    public static final class Candidate {
+        private final int index;
+        private final By locator;
+        private final int matchCount;
+        private final int visibleCount;
+        private final WebElement element;
+
+        Candidate(int index, By locator, int matchCount, int visibleCount, WebElement element) {
+            this.index = index;
+            this.locator = locator;
+            this.matchCount = matchCount;
+            this.visibleCount = visibleCount;
+            this.element = element;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+
+        public int getVisibleCount() {
+            return visibleCount;
+        }
+
+        /**
+         * The first visible element the locator matched.
+         */
+        public WebElement getElement() {
+            return element;
+        }
+
+        @Override
+        public String toString() {
+            return locator + " (matches=" + matchCount + ", visible=" + visibleCount + ")";
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RFC 4180 style CSV reader over a memory-mapped file. Rows are located by a byte-level scan
+ * (delimiters are ASCII, so UTF-8 content needs no decoding to be split) and handed out as
+ * {@link CsvRow} flyweights that only record field offsets. Quoted fields may contain commas,
+ * line breaks and doubled quotes. Rows are indexed as the iterator advances, so a lazy data
+ * provider never scans further than TestNG has asked for.
+ */
+public final class MappedCsvReader implements Iterator<CsvRow>, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(MappedCsvReader.class);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final int limit;
+    private final CsvRow.Header header;
+    private final long startNanos = System.nanoTime();
+
+    private int position;
+    private int rowNumber;
+    private int[] scratch;
+    private CsvRow next;
+    private boolean reported;
+
+    public MappedCsvReader(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                channel.close();
+                throw new FrameworkException("CSV file too large to map: " + path + " (" + size + " bytes)");
+            }
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            this.limit = (int) size;
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to read test data from csv: " + path, e);
+        }
+        skipByteOrderMark();
+        this.header = readHeader();
+        this.scratch = new int[Math.max(1, header.size()) * 2];
+    }
+
+    public List<String> getHeader() {
+        return header.names();
+    }
+
+    /**
+     * Reads every remaining row; the rows still share the mapping and decode on access.
+     */
+    public List<CsvRow> readAll() {
+        List<CsvRow> rows = new ArrayList<>();
+        forEachRemaining(rows::add);
+        return rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        if (next == null && !reported) {
+            reported = true;
+            double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+            logger.info("Indexed {} rows from {} in {}ms ({} rows/sec, {} bytes mapped)", rowNumber,
+                    path.getFileName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    String.format("%.0f", rowNumber / seconds), limit);
+        }
+        return next != null;
+    }
+
+    @Override
+    public CsvRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CsvRow row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        // The mapping stays valid for rows already handed out; it is released when they are collected
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Could not close {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (limit >= 3 && (data.get(0) & 0xFF) == 0xEF && (data.get(1) & 0xFF) == 0xBB && (data.get(2) & 0xFF) == 0xBF) {
+            position = 3;
+        }
+    }
+
+    private CsvRow.Header readHeader() {
+        scratch = new int[16];
+        int fields = scanRow();
+        if (fields < 0) {
+            return new CsvRow.Header(Collections.emptyList(), Collections.emptyMap());
+        }
+        CsvRow headerRow = new CsvRow(data, null, 0, scratch, fields);
+        List<String> names = new ArrayList<>(fields);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < fields; i++) {
+            String name = headerRow.get(i).trim();
+            names.add(name);
+            positions.putIfAbsent(name, i);
+        }
+        return new CsvRow.Header(Collections.unmodifiableList(names), positions);
+    }
+
+    private CsvRow readRow() {
+        int fields = scanRow();
+        if (fields < 0) {
+            return null;
+        }
+        return new CsvRow(data, header, ++rowNumber, Arrays.copyOf(scratch, fields * 2), fields);
+    }
+
+    /**
+     * Records the field bounds of the next non-blank record into {@link #scratch} and returns
+     * the number of fields, or -1 at end of input.
+     */
+    private int scanRow() {
+        while (position < limit && isLineBreak(data.get(position))) {
+            position++;
+        }
+        if (position >= limit) {
+            return -1;
+        }
+        int field = 0;
+        int i = position;
+        while (true) {
+            int start;
+            int end;
+            boolean escaped = false;
+            if (i < limit && data.get(i) == '"') {
+                start = ++i;
+                while (i < limit) {
+                    if (data.get(i) == '"') {
+                        if (i + 1 < limit && data.get(i + 1) == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i;
+                // Skip the closing quote and tolerate stray characters up to the delimiter
+                while (i < limit && data.get(i) != ',' && !isLineBreak(data.get(i))) {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && data.get(i) != ',' && !isLineBreak(data.get(i))) {
+                    i++;
+                }
+                end = i;
+            }
+            if (field * 2 + 1 >= scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            scratch[field * 2] = start;
+            scratch[field * 2 + 1] = escaped ? ~end : end;
+            field++;
+            if (i < limit && data.get(i) == ',') {
+                i++;
+                continue;
+            }
+            if (i < limit && data.get(i) == '\r') {
+                i++;
+            }
+            if (i < limit && data.get(i) == '\n') {
+                i++;
+            }
+            position = i;
+            return field;
+        }
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,173 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event-driven page readiness used instead of fixed sleeps. A page counts as stable once
+ * the document is complete, the network has been idle (via CDP in-flight request tracking
+ * where available) and the DOM has not mutated for a quiet period. Every wait records how
+ * long it actually took, per page.
+ */
+public final class PageReadiness {
+    private static final Logger logger = LogManager.getLogger(PageReadiness.class);
+
+    // Installs a MutationObserver once per document and reports readyState plus ms since the last mutation
+    private static final String DOM_PROBE_SCRIPT =
+            "var r = window.__seReadiness;"
+            + "if (!r) {"
+            + "  r = window.__seReadiness = { lastMutation: performance.now() };"
+            + "  new MutationObserver(function () { r.lastMutation = performance.now(); })"
+            + "    .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  return [document.readyState, 0];"
+            + "}"
+            + "return [document.readyState, performance.now() - r.lastMutation];";
+
+    private static final Map<WebDriver, NetworkTracker> trackers = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, WaitStats> statsByPage = new ConcurrentHashMap<>();
+
+    private PageReadiness() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts CDP network tracking for a new session. Safe to call on drivers without DevTools.
+     */
+    public static void install(WebDriver driver) {
+        if (trackers.containsKey(driver) || !DevToolsSupport.isAvailable(driver)) {
+            return;
+        }
+        NetworkTracker tracker = new NetworkTracker();
+        DevToolsSupport.addListener(driver, "Network.requestWillBeSent",
+                event -> tracker.started(String.valueOf(event.get("requestId"))));
+        DevToolsSupport.addListener(driver, "Network.loadingFinished",
+                event -> tracker.finished(String.valueOf(event.get("requestId"))));
+        DevToolsSupport.addListener(driver, "Network.loadingFailed",
+                event -> tracker.finished(String.valueOf(event.get("requestId"))));
+        if (DevToolsSupport.send(driver, "Network.enable", Collections.emptyMap())) {
+            trackers.put(driver, tracker);
+        }
+    }
+
+    public static long waitUntilStable(WebDriver driver, String pageName) {
+        return waitUntilStable(driver, pageName,
+                ConfigReader.getIntValue("readiness.dom.quiet.ms", 500),
+                ConfigReader.getIntValue("readiness.network.idle.ms", 500));
+    }
+
+    /**
+     * Waits only for the DOM to settle, e.g. after scrolling an element into view.
+     */
+    public static long waitForDomQuiet(WebDriver driver, String label, int quietMillis) {
+        return waitUntilStable(driver, label, quietMillis, -1);
+    }
+
+    private static long waitUntilStable(WebDriver driver, String label, int domQuietMillis, int networkIdleMillis) {
+        install(driver);
+        NetworkTracker tracker = networkIdleMillis >= 0 ? trackers.get(driver) : null;
+        int maxInFlight = ConfigReader.getIntValue("readiness.network.max.inflight", 2);
+        long start = System.nanoTime();
+        boolean stable = true;
+
+        try {
+            Duration polling = Duration.ofMillis(ConfigReader.getIntValue("readiness.polling.ms", 100));
+            new SmartWait(driver, Duration.ofSeconds(ConfigReader.getIntValue("readiness.timeout", 10)))
+                    .withPolling(polling, polling)
+                    .until("page readiness: " + label, d -> {
+                        if (tracker != null && !tracker.isIdle(maxInFlight, networkIdleMillis)) {
+                            return false;
+                        }
+                        Object result = ((JavascriptExecutor) d).executeScript(DOM_PROBE_SCRIPT);
+                        if (!(result instanceof List)) {
+                            return false;
+                        }
+                        List<?> probe = (List<?>) result;
+                        return "complete".equals(probe.get(0))
+                                && ((Number) probe.get(1)).doubleValue() >= domQuietMillis;
+                    });
+        } catch (TimeoutException e) {
+            stable = false;
+            logger.warn("{} did not become stable in time (in-flight requests: {}), continuing",
+                    label, tracker == null ? "n/a" : tracker.inFlightCount());
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        statsByPage.computeIfAbsent(label, key -> new WaitStats()).record(elapsedMillis, stable);
+        logger.debug("{} stable after {}ms", label, elapsedMillis);
+        return elapsedMillis;
+    }
+
+    public static Map<String, String> getStats() {
+        Map<String, String> stats = new TreeMap<>();
+        statsByPage.forEach((page, waitStats) -> stats.put(page, waitStats.toString()));
+        return stats;
+    }
+
+    public static void logSummary() {
+        if (!statsByPage.isEmpty()) {
+            logger.info("Page readiness waits: {}", getStats());
+        }
+    }
+
+    private static final class NetworkTracker {
+        private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile long lastActivity = System.nanoTime();
+
+        void started(String requestId) {
+            inFlight.add(requestId);
+            lastActivity = System.nanoTime();
+        }
+
+        void finished(String requestId) {
+            inFlight.remove(requestId);
+            lastActivity = System.nanoTime();
+        }
+
+        int inFlightCount() {
+            return inFlight.size();
+        }
+
+        boolean isIdle(int maxInFlight, int idleMillis) {
+            // Long-polling and beacon requests never finish, so a few in-flight requests are tolerated
+            return inFlight.size() <= maxInFlight
+                    && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity) >= idleMillis;
+        }
+    }
+
+    private static final class WaitStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        void record(long millis, boolean stable) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            if (!stable) {
+                timeouts.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            long waits = count.get();
+            return String.format("count=%d, avg=%dms, max=%dms, timeouts=%d",
+                    waits, waits == 0 ? 0 : totalMillis.get() / waits, maxMillis.get(), timeouts.get());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package utils;
+
+import constants.FrameworkException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One line of the report event log: a type, a timestamp and flat string fields. Encoded as a
+ * single-line JSON object so logs can be appended, tailed, grepped and merged line by line.
+ */
+public final class ReportEvent {
+    public enum Type {
+        /** Run metadata: run id, host, system info. */
+        RUN,
+        /** A test node was created. */
+        START,
+        /** A log entry on a test. */
+        LOG,
+        /** The test finished; no more entries follow for it. */
+        END,
+        /** The run finished normally. */
+        FINISH
+    }
+
+    public static final String TEST = "test";
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+    public static final String KEY = "key";
+    public static final String THREAD = "thread";
+    public static final String STATUS = "status";
+    public static final String MESSAGE = "message";
+    public static final String ATTACHMENT = "attachment";
+    public static final String ERROR = "error";
+
+    private static final Json JSON = new Json();
+
+    private final Type type;
+    private final long timestamp;
+    private final Map<String, String> fields;
+
+    private ReportEvent(Type type, long timestamp, Map<String, String> fields) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.fields = fields;
+    }
+
+    /**
+     * Builds an event from alternating field names and values; null values are left out.
+     */
+    public static ReportEvent of(Type type, long timestamp, String... namesAndValues) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                fields.put(namesAndValues[i], namesAndValues[i + 1]);
+            }
+        }
+        return new ReportEvent(type, timestamp, Collections.unmodifiableMap(fields));
+    }
+
+    public static ReportEvent of(Type type, long timestamp, Map<String, String> fields) {
+        return new ReportEvent(type, timestamp, Collections.unmodifiableMap(new LinkedHashMap<>(fields)));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String get(String field) {
+        return fields.get(field);
+    }
+
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    /**
+     * A copy with some fields replaced or added.
+     */
+    public ReportEvent with(String... namesAndValues) {
+        Map<String, String> copy = new LinkedHashMap<>(fields);
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                copy.put(namesAndValues[i], namesAndValues[i + 1]);
+            }
+        }
+        return new ReportEvent(type, timestamp, Collections.unmodifiableMap(copy));
+    }
+
+    public String toJson() {
+        Map<String, Object> json = new LinkedHashMap<>(fields.size() + 2);
+        json.put("type", type.name().toLowerCase(Locale.ROOT));
+        json.put("ts", timestamp);
+        json.putAll(fields);
+        StringBuilder line = new StringBuilder(64 + fields.size() * 24);
+        try (JsonOutput out = JSON.newOutput(line)) {
+            // One event per line: control characters, CR and LF included, are escaped
+            out.setPrettyPrint(false).writeClassName(false).write(json);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Parses a line written by {@link #toJson()}. Malformed or truncated lines raise
+     * {@link FrameworkException}.
+     */
+    public static ReportEvent fromJson(String line) {
+        Map<String, Object> json;
+        try {
+            json = JSON.toType(line, Json.MAP_TYPE);
+        } catch (JsonException e) {
+            throw new FrameworkException("Malformed report event: " + line, e);
+        }
+        if (json == null || !(json.get("type") instanceof String) || !(json.get("ts") instanceof Number)) {
+            throw new FrameworkException("Report event without type or timestamp: " + line);
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : json.entrySet()) {
+            if (field.getValue() != null && !"type".equals(field.getKey()) && !"ts".equals(field.getKey())) {
+                fields.put(field.getKey(), String.valueOf(field.getValue()));
+            }
+        }
+        try {
+            return new ReportEvent(Type.valueOf(((String) json.get("type")).toUpperCase(Locale.ROOT)),
+                    ((Number) json.get("ts")).longValue(), Collections.unmodifiableMap(fields));
+        } catch (IllegalArgumentException e) {
+            throw new FrameworkException("Malformed report event: " + line, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
@@ -0,0 +1,158 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only report event log. Test threads enqueue events, singly or in batches, on a
+ * lock-free queue; one daemon thread appends them as JSON lines and feeds the
+ * {@link HtmlReportRenderer}, flushing both after every drain, so a crashed JVM leaves a log
+ * and page that are complete up to its last moments. Producers block while the writer is
+ * {@code maxBacklog} events behind, which keeps memory bounded however large the suite.
+ */
+final class ReportEventLog implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ReportEventLog.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final Path file;
+    private final HtmlReportRenderer renderer;
+    private final int maxBacklog;
+    private final Queue<List<ReportEvent>> queue = new ConcurrentLinkedQueue<>();
+    // One permit per event the writer may fall behind by
+    private final Semaphore capacity;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final BufferedWriter writer;
+    private final Thread thread;
+    private volatile boolean closing;
+    private volatile Throwable failure;
+
+    ReportEventLog(Path file, HtmlReportRenderer renderer, int maxBacklog) throws IOException {
+        this.file = file;
+        this.renderer = renderer;
+        this.maxBacklog = Math.max(1, maxBacklog);
+        this.capacity = new Semaphore(this.maxBacklog);
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.thread = new Thread(this::run, "report-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void append(ReportEvent event) {
+        appendAll(Collections.singletonList(event));
+    }
+
+    /**
+     * Enqueues events that stay together and in order; one queue insertion for the lot.
+     */
+    void appendAll(List<ReportEvent> events) {
+        if (closing || failure != null || events.isEmpty()) {
+            return;
+        }
+        int permits = permits(events);
+        if (!capacity.tryAcquire(permits)) {
+            LockSupport.unpark(thread);
+            capacity.acquireUninterruptibly(permits);
+        }
+        queue.add(events);
+        enqueued.addAndGet(events.size());
+    }
+
+    private int permits(List<ReportEvent> events) {
+        return Math.min(events.size(), maxBacklog);
+    }
+
+    /**
+     * Blocks until every event appended before this call is on disk.
+     */
+    void flush() {
+        long target = enqueued.get();
+        while (written.get() < target && failure == null && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Writes the remaining events and the report summary. Idempotent.
+     */
+    @Override
+    public void close() {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean wasClosing = closing;
+                if (!drain()) {
+                    if (wasClosing) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+            writer.close();
+            renderer.close();
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            // Nothing will be written any more; never leave producers waiting for room
+            capacity.release(Integer.MAX_VALUE / 2);
+            logger.error("Report writer for " + file + " stopped, events after this point are lost: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes whatever is queued; returns false if there was nothing.
+     */
+    private boolean drain() throws IOException {
+        List<ReportEvent> batch = queue.poll();
+        if (batch == null) {
+            return false;
+        }
+        long count = 0;
+        int permits = 0;
+        do {
+            for (ReportEvent event : batch) {
+                writer.write(event.toJson());
+                writer.newLine();
+                renderer.accept(event);
+            }
+            count += batch.size();
+            permits += permits(batch);
+            batch = queue.poll();
+        } while (batch != null && permits < maxBacklog);
+        writer.flush();
+        renderer.flush();
+        written.addAndGet(count);
+        capacity.release(permits);
+        return true;
+    }
+}
@@ -0,0 +1,218 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the event logs of report shards (forks, CI nodes) into one HTML report. The shards are
+ * read as a k-way merge on event time, holding one pending event per shard, so memory does not
+ * grow with shard size or count:
+ * <pre>
+ * java -cp ... utils.ReportMerger reports/MergedReport.html node-1/reports node-2/reports/events-run-node-2.jsonl ...
+ * </pre>
+ * Directories are searched for {@code events-*.jsonl}. Events are tagged with their shard, tests
+ * rerun on another shard are counted once by test key, and relative screenshot paths are looked
+ * up under the shard's directory, so shard folders copied from other machines keep their images.
+ */
+public final class ReportMerger {
+    private static final Logger logger = LogManager.getLogger(ReportMerger.class);
+
+    private ReportMerger() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output.html> <events.jsonl | directory>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(Paths.get(args[i]));
+        }
+        merge(findShards(inputs), Paths.get(args[0]));
+    }
+
+    /**
+     * Expands directories into the shard logs they contain, in a stable order.
+     */
+    public static List<Path> findShards(List<Path> inputs) {
+        List<Path> shards = new ArrayList<>();
+        for (Path input : inputs) {
+            if (!Files.isDirectory(input)) {
+                shards.add(input);
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(input)) {
+                shards.addAll(files.filter(Files::isRegularFile)
+                        .filter(file -> file.getFileName().toString().startsWith("events-")
+                                && file.getFileName().toString().endsWith(".jsonl"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            } catch (IOException e) {
+                throw new FrameworkException("Failed to list report shards in " + input, e);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Streams the shards into one report and returns the number of tests rendered.
+     */
+    public static int merge(List<Path> shards, Path output) {
+        if (shards.isEmpty()) {
+            throw new FrameworkException("No report shards to merge");
+        }
+        long start = System.nanoTime();
+        PriorityQueue<ShardReader> queue = new PriorityQueue<>(shards.size(),
+                Comparator.comparingLong(ShardReader::headTimestamp).thenComparingInt(reader -> reader.ordinal));
+        long events = 0;
+        HtmlReportRenderer renderer = new HtmlReportRenderer(output, "Selenium Test Results");
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                ShardReader reader = new ShardReader(shards.get(i), i);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            while (!queue.isEmpty()) {
+                ShardReader reader = queue.poll();
+                renderer.accept(reader.head);
+                events++;
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+        } finally {
+            // Writes the summary; tests still open when their shard ended are rendered as incomplete
+            renderer.close();
+            queue.forEach(ShardReader::close);
+        }
+        logger.info(String.format("Merged %d shards (%d events, %d tests) into %s in %.0fms", shards.size(), events,
+                renderer.getRenderedCount(), output, (System.nanoTime() - start) / 1e6));
+        return renderer.getRenderedCount();
+    }
+
+    /**
+     * Run and shard ids end up in file names; keep them portable.
+     */
+    static String fileSafe(String id) {
+        return id.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * One shard log, read a line at a time. Run and shard come from the RUN event at the top
+     * of the log, or from the file name if the log has none.
+     */
+    private static final class ShardReader implements Closeable {
+        private final Path file;
+        private final Path dir;
+        private final int ordinal;
+        private final BufferedReader reader;
+        private String run;
+        private String shard;
+        private ReportEvent head;
+        private long lineNumber;
+
+        ShardReader(Path file, int ordinal) {
+            this.file = file;
+            this.dir = file.toAbsolutePath().getParent();
+            this.ordinal = ordinal;
+            this.shard = file.getFileName().toString().replaceFirst("\\.jsonl$", "");
+            try {
+                this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new FrameworkException("Failed to open report shard " + file, e);
+            }
+        }
+
+        long headTimestamp() {
+            return head.getTimestamp();
+        }
+
+        boolean advance() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    ReportEvent event;
+                    try {
+                        event = ReportEvent.fromJson(line);
+                    } catch (FrameworkException e) {
+                        // Typically the last line of a worker that was killed mid-write
+                        logger.warn("Skipping unreadable event at " + file + ":" + lineNumber);
+                        continue;
+                    }
+                    head = tag(event);
+                    return true;
+                }
+                head = null;
+                return false;
+            } catch (IOException e) {
+                throw new FrameworkException("Failed to read report shard " + file, e);
+            }
+        }
+
+        private ReportEvent tag(ReportEvent event) {
+            if (event.getType() == ReportEvent.Type.RUN && event.get("run") != null) {
+                run = event.get("run");
+                shard = event.get("shard") != null ? event.get("shard") : shard;
+            }
+            String attachment = event.get(ReportEvent.ATTACHMENT);
+            return event.with("run", run, "shard", shard,
+                    ReportEvent.ATTACHMENT, attachment == null ? null : resolve(attachment));
+        }
+
+        /**
+         * Screenshot paths are relative to the worker's directory, which is usually the parent
+         * of its reports folder; try that, then the shard folder itself, then as recorded.
+         */
+        private String resolve(String attachment) {
+            if (attachment.contains("://") || dir == null) {
+                return attachment;
+            }
+            Path recorded = Paths.get(attachment);
+            if (recorded.isAbsolute()) {
+                return attachment;
+            }
+            for (Path base : new Path[]{dir.getParent(), dir}) {
+                if (base != null && Files.exists(base.resolve(recorded))) {
+                    return base.resolve(recorded).normalize().toString();
+                }
+            }
+            Path flat = dir.resolve(recorded.getFileName());
+            return Files.exists(flat) ? flat.toString() : attachment;
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close report shard " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
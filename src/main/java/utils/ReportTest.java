@@ -0,0 +1,139 @@
+package utils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A test node in the report. Mirrors the parts of Extent's {@code ExtentTest} the framework
+ * uses, but every call becomes a {@link ReportEvent} instead of growing an in-memory tree.
+ * The node belongs to the thread running the test and buffers its events; they reach the shared
+ * log as one batch when the test ends, or sooner once {@code report.batch.size} are waiting.
+ */
+public final class ReportTest {
+    private static final String[] SEVERITY = {"info", "pass", "warning", "skip", "fail"};
+
+    private final String id;
+    private final String name;
+    private final int batchSize;
+    private List<ReportEvent> buffer;
+    private boolean ended;
+    private volatile int worstSeverity;
+
+    ReportTest(String id, String name, int batchSize) {
+        this.id = id;
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The most severe status logged so far: fail, skip, warning, pass or info.
+     */
+    public String getStatus() {
+        return SEVERITY[worstSeverity];
+    }
+
+    public ReportTest info(String message) {
+        return log("info", message, null, null);
+    }
+
+    public ReportTest pass(String message) {
+        return log("pass", message, null, null);
+    }
+
+    public ReportTest fail(String message) {
+        return log("fail", message, null, null);
+    }
+
+    public ReportTest fail(Throwable throwable) {
+        return log("fail", String.valueOf(throwable), stackTrace(throwable), null);
+    }
+
+    public ReportTest skip(String message) {
+        return log("skip", message, null, null);
+    }
+
+    public ReportTest warning(String message) {
+        return log("warning", message, null, null);
+    }
+
+    /**
+     * Attaches a screenshot; a null path (capture failed) is ignored.
+     */
+    public ReportTest addScreenCaptureFromPath(String path) {
+        return path == null ? this : log("info", null, null, path);
+    }
+
+    private ReportTest log(String status, String message, String error, String attachment) {
+        ReportEvent event = ReportEvent.of(ReportEvent.Type.LOG, System.currentTimeMillis(),
+                ReportEvent.TEST, id,
+                ReportEvent.STATUS, status,
+                ReportEvent.MESSAGE, message,
+                ReportEvent.ERROR, error,
+                ReportEvent.ATTACHMENT, attachment);
+        List<ReportEvent> full = null;
+        // Only contended if a test hands its node to helper threads
+        synchronized (this) {
+            if (ended) {
+                // The test is already in the report
+                return this;
+            }
+            int severity = severity(status);
+            if (severity > worstSeverity) {
+                worstSeverity = severity;
+            }
+            if (buffer == null) {
+                buffer = new ArrayList<>(Math.min(batchSize, 16));
+            }
+            buffer.add(event);
+            if (buffer.size() >= batchSize) {
+                full = buffer;
+                buffer = null;
+            }
+        }
+        if (full != null) {
+            ExtentReportManager.publishAll(full);
+        }
+        return this;
+    }
+
+    /**
+     * Hands back the buffered events followed by the END event and closes the buffer.
+     */
+    synchronized List<ReportEvent> end(long timestamp) {
+        List<ReportEvent> batch = buffer != null ? buffer : new ArrayList<>(1);
+        buffer = null;
+        ended = true;
+        batch.add(ReportEvent.of(ReportEvent.Type.END, timestamp,
+                ReportEvent.TEST, id,
+                ReportEvent.STATUS, getStatus()));
+        return batch;
+    }
+
+    private static int severity(String status) {
+        for (int i = 0; i < SEVERITY.length; i++) {
+            if (SEVERITY[i].equals(status)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+}
@@ -0,0 +1,248 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "Lean" browser profile that stops the browser from downloading resources no assertion
+ * looks at (images, fonts, media, ad and tracking scripts). Chromium browsers block through
+ * CDP {@code Network.setBlockedURLs}; Firefox falls back to preferences, which cover
+ * resource types but not URL patterns.
+ */
+public final class ResourceBlocker {
+    private static final Logger logger = LogManager.getLogger(ResourceBlocker.class);
+
+    private static final Map<String, List<String>> TYPE_PATTERNS = new HashMap<>();
+    private static final Map<String, Long> DEFAULT_AVERAGE_BYTES = new HashMap<>();
+
+    static {
+        TYPE_PATTERNS.put("image", Arrays.asList("*.jpg*", "*.jpeg*", "*.png*", "*.gif*", "*.webp*",
+                "*.svg*", "*.ico*", "*.avif*"));
+        TYPE_PATTERNS.put("font", Arrays.asList("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"));
+        TYPE_PATTERNS.put("media", Arrays.asList("*.mp4*", "*.webm*", "*.m3u8*", "*.mp3*", "*.ogg*"));
+
+        DEFAULT_AVERAGE_BYTES.put("Image", 25_000L);
+        DEFAULT_AVERAGE_BYTES.put("Font", 40_000L);
+        DEFAULT_AVERAGE_BYTES.put("Media", 250_000L);
+        DEFAULT_AVERAGE_BYTES.put("Script", 45_000L);
+    }
+
+    private static final Map<WebDriver, BlockStats> statsByDriver = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong totalBlockedRequests = new AtomicLong();
+    private static final AtomicLong totalEstimatedBytesSaved = new AtomicLong();
+
+    private ResourceBlocker() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanValue("lean.profile.enabled", false);
+    }
+
+    static Set<String> getBlockedTypes() {
+        return splitConfig("lean.block.resource.types");
+    }
+
+    static Set<String> getBlockedUrlPatterns() {
+        Set<String> patterns = new LinkedHashSet<>(splitConfig("lean.block.url.patterns"));
+        for (String type : getBlockedTypes()) {
+            List<String> typePatterns = TYPE_PATTERNS.get(type);
+            if (typePatterns != null) {
+                patterns.addAll(typePatterns);
+            } else {
+                logger.warn("Unknown resource type in lean.block.resource.types: {}", type);
+            }
+        }
+        return patterns;
+    }
+
+    public static void applyFirefoxOptions(FirefoxOptions options) {
+        if (!isEnabled()) {
+            return;
+        }
+        Set<String> types = getBlockedTypes();
+        if (types.contains("image")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (types.contains("font")) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        if (types.contains("media")) {
+            options.addPreference("media.autoplay.default", 5);
+            options.addPreference("media.preload.default", 0);
+        }
+        if (!splitConfig("lean.block.url.patterns").isEmpty()) {
+            logger.warn("lean.block.url.patterns is not supported for Firefox; only resource types are blocked");
+        }
+    }
+
+    /**
+     * Installs request blocking on a freshly created session. Must run before the first
+     * navigation so the pre-warmed base URL is already loaded lean.
+     */
+    public static void install(WebDriver driver) {
+        if (!isEnabled() || !DevToolsSupport.isAvailable(driver)) {
+            return;
+        }
+        List<String> patterns = new ArrayList<>(getBlockedUrlPatterns());
+        if (patterns.isEmpty()) {
+            return;
+        }
+        BlockStats stats = new BlockStats();
+        DevToolsSupport.addListener(driver, "Network.loadingFailed", event -> {
+            if (event.get("blockedReason") != null) {
+                Object type = event.get("type");
+                stats.record(type == null ? "Other" : type.toString());
+            }
+        });
+        Map<String, Object> params = new HashMap<>();
+        params.put("urls", patterns);
+        boolean enabled = DevToolsSupport.send(driver, "Network.enable", new HashMap<>())
+                && DevToolsSupport.send(driver, "Network.setBlockedURLs", params);
+        if (enabled) {
+            statsByDriver.put(driver, stats);
+            logger.info("Lean profile installed, blocking {} URL pattern(s)", patterns.size());
+        }
+    }
+
+    /**
+     * Logs how many requests were made and blocked for the current page, then resets the
+     * per-driver blocked counters so the next page starts from zero.
+     */
+    public static PageReport reportPage(WebDriver driver, String pageName) {
+        if (!isEnabled()) {
+            return null;
+        }
+        PageReport report = new PageReport(pageName);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(
+                    "var entries = performance.getEntriesByType('resource'), bytes = 0;"
+                    + "for (var i = 0; i < entries.length; i++) { bytes += entries[i].transferSize || 0; }"
+                    + "return [entries.length, bytes];");
+            if (result instanceof List) {
+                List<?> values = (List<?>) result;
+                report.loadedRequests = ((Number) values.get(0)).intValue();
+                report.loadedBytes = ((Number) values.get(1)).longValue();
+            }
+        } catch (Exception e) {
+            logger.debug("Could not read resource timings for {}: {}", pageName, e.getMessage());
+        }
+        BlockStats stats = statsByDriver.get(driver);
+        if (stats != null) {
+            report.blockedByType.putAll(stats.drain());
+        }
+        for (Map.Entry<String, Integer> entry : report.blockedByType.entrySet()) {
+            report.blockedRequests += entry.getValue();
+            report.estimatedBytesSaved += entry.getValue() * averageBytes(entry.getKey());
+        }
+        totalBlockedRequests.addAndGet(report.blockedRequests);
+        totalEstimatedBytesSaved.addAndGet(report.estimatedBytesSaved);
+        logger.info(report.toString());
+        return report;
+    }
+
+    private static long averageBytes(String cdpType) {
+        String key = "lean.estimate.bytes." + cdpType.toLowerCase();
+        long fallback = DEFAULT_AVERAGE_BYTES.getOrDefault(cdpType, 10_000L);
+        return ConfigReader.getIntValue(key, (int) fallback);
+    }
+
+    private static Set<String> splitConfig(String key) {
+        Set<String> values = new LinkedHashSet<>();
+        String raw = ConfigReader.getValue(key, "");
+        for (String value : raw.split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim().toLowerCase());
+            }
+        }
+        return values;
+    }
+
+    public static long getTotalBlockedRequests() {
+        return totalBlockedRequests.get();
+    }
+
+    public static long getTotalEstimatedBytesSaved() {
+        return totalEstimatedBytesSaved.get();
+    }
+
+    private static final class BlockStats {
+        private final Map<String, AtomicInteger> blockedByType = new ConcurrentHashMap<>();
+
+        void record(String type) {
+            blockedByType.computeIfAbsent(type, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        Map<String, Integer> drain() {
+            Map<String, Integer> snapshot = new TreeMap<>();
+            for (Map.Entry<String, AtomicInteger> entry : blockedByType.entrySet()) {
+                int count = entry.getValue().getAndSet(0);
+                if (count > 0) {
+                    snapshot.put(entry.getKey(), count);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    public static final class PageReport {
+        private final String pageName;
+        private final Map<String, Integer> blockedByType = new TreeMap<>();
+        private int loadedRequests;
+        private long loadedBytes;
+        private int blockedRequests;
+        private long estimatedBytesSaved;
+
+        private PageReport(String pageName) {
+            this.pageName = pageName;
+        }
+
+        public String getPageName() {
+            return pageName;
+        }
+
+        public Map<String, Integer> getBlockedByType() {
+            return Collections.unmodifiableMap(blockedByType);
+        }
+
+        public int getLoadedRequests() {
+            return loadedRequests;
+        }
+
+        public long getLoadedBytes() {
+            return loadedBytes;
+        }
+
+        public int getBlockedRequests() {
+            return blockedRequests;
+        }
+
+        public long getEstimatedBytesSaved() {
+            return estimatedBytesSaved;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Lean profile [%s]: loaded %d request(s) / %d KB, blocked %d request(s) %s, ~%d KB saved",
+                    pageName, loadedRequests, loadedBytes / 1024, blockedRequests, blockedByType,
+                    estimatedBytesSaved / 1024);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-test retry budget shared by every retry layer: {@link ExceptionHandler} calls at any
+ * nesting depth and test-level reruns by {@code RetryAnalyzer}. The budget is bound to the
+ * test thread between {@link #begin(String)} and {@link #end()} and is keyed by test, so a
+ * rerun of the same test keeps drawing from what is left rather than starting afresh.
+ * Code running outside a test gets a throwaway budget per top-level call.
+ */
+public final class RetryContext {
+    private static final Map<String, RetryContext> contextsByTest = new ConcurrentHashMap<>();
+    private static final ThreadLocal<RetryContext> current = new ThreadLocal<>();
+
+    private final String testKey;
+    private final int budget;
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private RetryContext(String testKey, int budget) {
+        this.testKey = testKey;
+        this.budget = budget;
+    }
+
+    private static int configuredBudget() {
+        return ConfigReader.getIntValue("retry.budget.per.test", 5);
+    }
+
+    /**
+     * Binds the test's budget to the current thread, reusing the remaining budget if the test
+     * is being rerun.
+     */
+    public static RetryContext begin(String testKey) {
+        RetryContext context = contextsByTest.computeIfAbsent(testKey, key -> new RetryContext(key, configuredBudget()));
+        current.set(context);
+        return context;
+    }
+
+    /**
+     * Unbinds the budget from the thread; it stays available for a rerun of the same test.
+     */
+    public static void end() {
+        current.remove();
+    }
+
+    /**
+     * Forgets the test's budget once it can no longer be rerun. Called from teardown for every
+     * invocation without a pending rerun, whatever its outcome, so failing data rows do not
+     * leave their budgets behind.
+     */
+    public static void complete(String testKey) {
+        contextsByTest.remove(testKey);
+    }
+
+    /**
+     * The budget bound to this thread, or a fresh standalone one sized to the policy when
+     * called outside a test.
+     */
+    static RetryContext enter(RetryPolicy policy) {
+        RetryContext context = current.get();
+        if (context == null) {
+            // Bound for the duration of the call so that nested calls share it
+            context = new RetryContext(null, policy.getMaxAttempts() - 1);
+            current.set(context);
+        }
+        context.depth.incrementAndGet();
+        return context;
+    }
+
+    void exit() {
+        if (depth.decrementAndGet() == 0 && testKey == null) {
+            current.remove();
+        }
+    }
+
+    /**
+     * Nesting depth of retrying calls on this budget; 1 for a top-level call.
+     */
+    int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Takes one retry from the budget, returning false once it is spent.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int spent = used.get();
+            if (spent >= budget) {
+                return false;
+            }
+            if (used.compareAndSet(spent, spent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes a retry for a rerun of the given test; tests without a bound budget may always rerun.
+     */
+    public static boolean tryAcquireRerun(String testKey) {
+        RetryContext context = contextsByTest.get(testKey);
+        return context == null || context.tryAcquire();
+    }
+
+    public String getTestKey() {
+        return testKey;
+    }
+
+    public int getUsed() {
+        return used.get();
+    }
+
+    public int getRemaining() {
+        return Math.max(0, budget - used.get());
+    }
+}
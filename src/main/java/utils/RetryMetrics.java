@@ -0,0 +1,98 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry counters per action name. Amplification is attempts per call: 1.0 means nothing was
+ * retried. Nested calls count separately, so a top-level call whose nested calls also retry
+ * raises both its own factor and the overall one.
+ */
+public final class RetryMetrics {
+    private static final Logger logger = LogManager.getLogger(RetryMetrics.class);
+    private static final Map<String, ActionStats> statsByAction = new ConcurrentHashMap<>();
+    private static final AtomicLong totalCalls = new AtomicLong();
+    private static final AtomicLong nestedCalls = new AtomicLong();
+    private static final AtomicLong totalAttempts = new AtomicLong();
+    private static final AtomicLong testReruns = new AtomicLong();
+    private static final AtomicLong testRerunsDenied = new AtomicLong();
+
+    private RetryMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    static void recordCall(String action, boolean topLevel) {
+        stats(action).calls.incrementAndGet();
+        totalCalls.incrementAndGet();
+        if (!topLevel) {
+            nestedCalls.incrementAndGet();
+        }
+    }
+
+    static void recordAttempt(String action) {
+        stats(action).attempts.incrementAndGet();
+        totalAttempts.incrementAndGet();
+    }
+
+    static void recordRecovered(String action) {
+        stats(action).recovered.incrementAndGet();
+    }
+
+    static void recordBudgetDenied(String action) {
+        stats(action).budgetDenied.incrementAndGet();
+    }
+
+    static void recordBackoff(String action, long delayMillis) {
+        stats(action).backoffMillis.addAndGet(delayMillis);
+    }
+
+    public static void recordRerun(boolean allowed) {
+        (allowed ? testReruns : testRerunsDenied).incrementAndGet();
+    }
+
+    private static ActionStats stats(String action) {
+        return statsByAction.computeIfAbsent(action, key -> new ActionStats());
+    }
+
+    /**
+     * Attempts per call across all actions and nesting depths.
+     */
+    public static double getAmplification() {
+        long calls = totalCalls.get();
+        return calls == 0 ? 1.0 : (double) totalAttempts.get() / calls;
+    }
+
+    public static Map<String, String> getStats() {
+        Map<String, String> stats = new TreeMap<>();
+        statsByAction.forEach((action, actionStats) -> stats.put(action, actionStats.toString()));
+        return stats;
+    }
+
+    public static void logSummary() {
+        getStats().forEach((action, stats) -> logger.info("Retry stats [{}]: {}", action, stats));
+        logger.info("Retry amplification: {} attempts for {} calls ({} nested) = {}, test reruns={} (denied by budget={})",
+                totalAttempts.get(), totalCalls.get(), nestedCalls.get(), String.format("%.2fx", getAmplification()),
+                testReruns.get(), testRerunsDenied.get());
+    }
+
+    private static final class ActionStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong recovered = new AtomicLong();
+        private final AtomicLong budgetDenied = new AtomicLong();
+        private final AtomicLong backoffMillis = new AtomicLong();
+
+        @Override
+        public String toString() {
+            long callCount = calls.get();
+            return String.format("calls=%d, attempts=%d, retries=%d, recovered=%d, budgetDenied=%d, backoff=%dms, amplification=%.2fx",
+                    callCount, attempts.get(), Math.max(0, attempts.get() - callCount), recovered.get(),
+                    budgetDenied.get(), backoffMillis.get(), callCount == 0 ? 0.0 : (double) attempts.get() / callCount);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter. The n-th retry waits {@code baseDelay * multiplier^(n-1)},
+ * capped at {@code maxDelay}, and then reduced by a random fraction of up to {@code jitter} so
+ * that parallel workers retrying against the same page do not retry in lock step.
+ */
+public final class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, double multiplier, double jitter) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    /**
+     * Policy from {@code auto.retry.count}, {@code retry.delay} (the first backoff step),
+     * {@code retry.max.delay}, {@code retry.backoff.multiplier} and {@code retry.jitter}.
+     */
+    public static RetryPolicy fromConfig() {
+        return ConfigReader.current().getRetryPolicy();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Delay before the given retry (1 for the first retry, i.e. the second attempt).
+     */
+    public long delayBeforeRetry(int retryNumber) {
+        double exponential = baseDelayMillis * Math.pow(multiplier, Math.max(0, retryNumber - 1));
+        double capped = Math.min(exponential, maxDelayMillis);
+        return (long) (capped * (1.0 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("maxAttempts=%d, baseDelay=%dms, maxDelay=%dms, multiplier=%.1f, jitter=%.2f",
+                maxAttempts, baseDelayMillis, maxDelayMillis, multiplier, jitter);
+    }
+}
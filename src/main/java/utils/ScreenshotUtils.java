@@ -15,17 +15,17 @@ import java.util.Date;
 
 public class ScreenshotUtils {
     private static final Logger logger = LogManager.getLogger(ScreenshotUtils.class);
-    private static final String SCREENSHOT_DIR = ConfigReader.getValue("screenshot.path", "screenshots");
 
     public static String captureScreenshot(WebDriver driver, String testName) {
         try {
             // Create screenshots directory if it doesn't exist
-            createScreenshotDirectory();
+            String screenshotDir = ConfigReader.current().getScreenshotDir();
+            createScreenshotDirectory(screenshotDir);
 
             // Generate timestamp for unique file name
             String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
             String fileName = String.format("%s_%s.png", testName, timestamp);
-            String filePath = Paths.get(SCREENSHOT_DIR, fileName).toString();
+            String filePath = Paths.get(screenshotDir, fileName).toString();
 
             // Capture screenshot
             File screenshotFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
@@ -39,12 +39,12 @@ public class ScreenshotUtils {
         }
     }
 
-    private static void createScreenshotDirectory() {
+    private static void createScreenshotDirectory(String screenshotDir) {
         try {
-            Path dirPath = Paths.get(SCREENSHOT_DIR);
+            Path dirPath = Paths.get(screenshotDir);
             if (!Files.exists(dirPath)) {
                 Files.createDirectories(dirPath);
-                logger.info("Created screenshots directory: " + SCREENSHOT_DIR);
+                logger.info("Created screenshots directory: " + screenshotDir);
             }
         } catch (Exception e) {
             logger.error("Failed to create screenshots directory: " + e.getMessage(), e);
@@ -0,0 +1,177 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Heals a broken locator by finding the element on the page that looks most like the one the
+ * locator used to match. A fingerprint is recorded the first time an element is found, and
+ * healing snapshots the visible candidates in one script call, scores them on the JVM side
+ * (in parallel for large pages) and accepts the best one above the similarity threshold.
+ */
+public final class SimilarityHealer {
+    private static final Logger logger = LogManager.getLogger(SimilarityHealer.class);
+    private static final int PARALLEL_THRESHOLD = 500;
+
+    // Ancestor path is nearest first, limited to five levels; text is whitespace-normalised and truncated
+    private static final String DESCRIBE_FUNCTION =
+            "function __seDescribe(el) {"
+            + "  var path = [];"
+            + "  for (var n = el.parentElement, d = 0; n && d < 5; n = n.parentElement, d++) {"
+            + "    path.push(n.tagName.toLowerCase() + (n.id ? '#' + n.id : ''));"
+            + "  }"
+            + "  var attrs = ['" + String.join("', '", ElementFingerprint.ATTRIBUTES) + "'];"
+            + "  var row = [el.tagName.toLowerCase(), el.id || '', el.getAttribute('class') || '',"
+            + "    (el.textContent || '').substring(0, 200).replace(/\\s+/g, ' ').trim().substring(0, 80)];"
+            + "  for (var i = 0; i < attrs.length; i++) { row.push(el.getAttribute(attrs[i]) || ''); }"
+            + "  row.push(path.join('>'));"
+            + "  return row;"
+            + "}";
+
+    private static final String FINGERPRINT_SCRIPT = DESCRIBE_FUNCTION + "return __seDescribe(arguments[0]);";
+
+    // Candidates are kept on the window so the winner can be resolved by index without shipping every element back
+    private static final String SNAPSHOT_SCRIPT = AnyOfCondition.LOCATE_FUNCTION + DESCRIBE_FUNCTION
+            + "var nodes = document.getElementsByTagName(arguments[0]), max = arguments[1], rows = [];"
+            + "var candidates = window.__seHealCandidates = [];"
+            + "for (var i = 0; i < nodes.length && candidates.length < max; i++) {"
+            + "  if (!__seVisible(nodes[i])) continue;"
+            + "  candidates.push(nodes[i]); rows.push(__seDescribe(nodes[i]));"
+            + "}"
+            + "return rows;";
+
+    // Returns the element plus the most stable unique selector available for it
+    private static final String RESOLVE_SCRIPT =
+            "var el = (window.__seHealCandidates || [])[arguments[0]];"
+            + "if (!el) return null;"
+            + "function unique(selector) { try { return document.querySelectorAll(selector).length === 1; } catch (e) { return false; } }"
+            + "if (el.id && unique('#' + CSS.escape(el.id))) return [el, '#' + CSS.escape(el.id)];"
+            + "var tag = el.tagName.toLowerCase(), attrs = ['aria-label', 'name', 'title', 'placeholder'];"
+            + "for (var i = 0; i < attrs.length; i++) {"
+            + "  var value = el.getAttribute(attrs[i]);"
+            + "  if (value) { var selector = tag + '[' + attrs[i] + '=\"' + CSS.escape(value) + '\"]';"
+            + "    if (unique(selector)) return [el, selector]; }"
+            + "}"
+            + "var parts = [];"
+            + "for (var n = el; n && n.nodeType === 1 && n !== document.documentElement; n = n.parentElement) {"
+            + "  if (n.id && unique('#' + CSS.escape(n.id))) { parts.unshift('#' + CSS.escape(n.id)); break; }"
+            + "  var index = 1;"
+            + "  for (var s = n.previousElementSibling; s; s = s.previousElementSibling) { if (s.tagName === n.tagName) index++; }"
+            + "  parts.unshift(n.tagName.toLowerCase() + ':nth-of-type(' + index + ')');"
+            + "}"
+            + "return [el, parts.join(' > ')];";
+
+    private static final Map<String, ElementFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    private SimilarityHealer() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanValue("healing.similarity.enabled", true);
+    }
+
+    /**
+     * Records the element's fingerprint unless one is already known for this run or stored by
+     * an earlier one, so the extra script call happens once per element rather than per lookup.
+     */
+    public static void remember(WebDriver driver, String elementName, By originalLocator, WebElement element) {
+        if (!isEnabled()) {
+            return;
+        }
+        String key = elementName + "|" + originalLocator;
+        if (fingerprints.containsKey(key)) {
+            return;
+        }
+        HealedLocatorStore store = HealedLocatorStore.getInstance();
+        String stored = store.getFingerprint(elementName, originalLocator);
+        if (stored != null) {
+            fingerprints.putIfAbsent(key, ElementFingerprint.decode(stored));
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(FINGERPRINT_SCRIPT, element);
+            if (result instanceof List) {
+                ElementFingerprint fingerprint = ElementFingerprint.fromValues((List<?>) result);
+                if (fingerprints.putIfAbsent(key, fingerprint) == null) {
+                    store.putFingerprint(elementName, originalLocator, fingerprint.encode());
+                    logger.debug("Recorded fingerprint for {}: {}", elementName, fingerprint);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Could not fingerprint {}: {}", elementName, e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the visible element most similar to the recorded fingerprint. Candidates with the
+     * same tag are scored first; if none clears the threshold, all visible elements are tried.
+     */
+    public static LocatorProbe.Candidate heal(WebDriver driver, String elementName, By originalLocator, double threshold) {
+        if (!isEnabled()) {
+            return null;
+        }
+        ElementFingerprint reference = fingerprints.get(elementName + "|" + originalLocator);
+        if (reference == null) {
+            String stored = HealedLocatorStore.getInstance().getFingerprint(elementName, originalLocator);
+            if (stored == null) {
+                logger.debug("No fingerprint recorded for {}, skipping similarity healing", elementName);
+                return null;
+            }
+            reference = ElementFingerprint.decode(stored);
+        }
+        int maxCandidates = ConfigReader.getIntValue("healing.similarity.max.candidates", 5000);
+        LocatorProbe.Candidate healed = healAmong(driver, elementName, reference, reference.getTag(), maxCandidates, threshold);
+        if (healed == null && !reference.getTag().isEmpty()) {
+            healed = healAmong(driver, elementName, reference, "*", maxCandidates, threshold);
+        }
+        return healed;
+    }
+
+    private static LocatorProbe.Candidate healAmong(WebDriver driver, String elementName, ElementFingerprint reference,
+                                                    String tag, int maxCandidates, double threshold) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long start = System.nanoTime();
+        Object snapshot = js.executeScript(SNAPSHOT_SCRIPT, tag.isEmpty() ? "*" : tag, maxCandidates);
+        if (!(snapshot instanceof List) || ((List<?>) snapshot).isEmpty()) {
+            return null;
+        }
+        List<?> rows = (List<?>) snapshot;
+        long captured = System.nanoTime();
+
+        double[] scores = new double[rows.size()];
+        IntStream indices = IntStream.range(0, rows.size());
+        (rows.size() >= PARALLEL_THRESHOLD ? indices.parallel() : indices).forEach(i ->
+                scores[i] = reference.similarity(ElementFingerprint.fromValues((List<?>) rows.get(i))));
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        long scored = System.nanoTime();
+        logger.info("Similarity healing for {}: scored {} <{}> candidates (snapshot {}ms, scoring {}ms), best={}",
+                elementName, rows.size(), tag, TimeUnit.NANOSECONDS.toMillis(captured - start),
+                TimeUnit.NANOSECONDS.toMillis(scored - captured), String.format("%.2f", scores[best]));
+        if (scores[best] < threshold) {
+            return null;
+        }
+
+        Object resolved = js.executeScript(RESOLVE_SCRIPT, best);
+        if (!(resolved instanceof List)) {
+            return null;
+        }
+        List<?> match = (List<?>) resolved;
+        return new LocatorProbe.Candidate(best, By.cssSelector((String) match.get(1)), 1, 1, (WebElement) match.get(0));
+    }
+}
@@ -4,43 +4,82 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.NoSuchElementException;
 
 public class SmartElementFinder {
     private static final Logger logger = LogManager.getLogger(SmartElementFinder.class);
-    private static final Map<String, List<By>> alternativeLocators = new HashMap<>();
-    private static final Map<String, By> healedLocators = new HashMap<>();
     
     // Similarity threshold for attribute matching
     private static final double SIMILARITY_THRESHOLD = 0.7;
 
     public static WebElement findElement(WebDriver driver, By originalLocator, String elementName) {
+        HealingCache cache = HealingCache.getInstance();
+        HealingCache.Entry healed = cache.lookup(elementName, originalLocator, driver::getCurrentUrl);
         try {
+            if (healed != null) {
+                // The original is known to be broken on this page, so the healed locator goes first;
+                // both are still evaluated together in case the original has been fixed
+                AnyOfCondition.Match match = findAnyWithExplicitWait(driver, elementName, healed.getLocator(), originalLocator);
+                if (match.getIndex() == 0) {
+                    logger.info("Element found using healed locator for: {} ({} successful uses)",
+                        elementName, healed.recordSuccess());
+                } else {
+                    logger.info("Original locator works again for {}, dropping healed locator", elementName);
+                    cache.invalidate(elementName, originalLocator, driver.getCurrentUrl());
+                }
+                return match.getElement();
+            }
             // First try with original locator
-            return findWithExplicitWait(driver, originalLocator);
+            WebElement element = findWithExplicitWait(driver, originalLocator);
+            SimilarityHealer.remember(driver, elementName, originalLocator, element);
+            return element;
         } catch (TimeoutException | NoSuchElementException e) {
             logger.warn("Original locator failed for {}: {}", elementName, e.getMessage());
-            
-            // Try with healed locator if available
-            String key = createLocatorKey(originalLocator, elementName);
-            if (healedLocators.containsKey(key)) {
-                try {
-                    WebElement element = findWithExplicitWait(driver, healedLocators.get(key));
-                    logger.info("Element found using healed locator for: {}", elementName);
-                    return element;
-                } catch (Exception ex) {
-                    logger.warn("Healed locator also failed for: {}", elementName);
-                }
+
+            // Healing against a degraded site only burns time, so it is skipped while the breaker is open
+            CircuitBreaker breaker = CircuitBreaker.forAction("self-healing");
+            try {
+                breaker.acquirePermission();
+            } catch (CircuitBreaker.OpenException open) {
+                logger.warn("Skipping self-healing for {}: {}", elementName, open.getMessage());
+                throw new ElementNotFoundException("Element not found: " + elementName, open);
             }
 
-            // Try self-healing
-            WebElement healedElement = attemptSelfHealing(driver, originalLocator, elementName);
-            if (healedElement != null) {
-                return healedElement;
+            // Try self-healing; threads healing the same element share one attempt
+            WebElement[] healedElement = new WebElement[1];
+            By healedLocator;
+            try {
+                healedLocator = cache.heal(elementName, originalLocator, driver.getCurrentUrl(), () -> {
+                    LocatorProbe.Candidate candidate = attemptSelfHealing(driver, originalLocator, elementName);
+                    if (candidate == null) {
+                        return null;
+                    }
+                    healedElement[0] = candidate.getElement();
+                    return candidate.getLocator();
+                });
+            } catch (WebDriverException transport) {
+                breaker.onFailure();
+                throw new ElementNotFoundException("Element not found: " + elementName, transport);
+            }
+            // Nothing to heal to is normal for optional elements and negative checks; only
+            // driver/transport errors say something about the environment
+            if (healedLocator != null) {
+                breaker.onSuccess();
+            } else {
+                breaker.onIgnored();
+            }
+            if (healedElement[0] != null) {
+                return healedElement[0];
+            }
+            if (healedLocator != null) {
+                // Healed by another thread; locate it in this session
+                try {
+                    return findWithExplicitWait(driver, healedLocator);
+                } catch (TimeoutException | NoSuchElementException sharedFailure) {
+                    logger.warn("Locator healed by another thread did not match for {}: {}", elementName, healedLocator);
+                }
             }
 
             // If all attempts fail, throw custom exception
@@ -48,56 +87,97 @@ public class SmartElementFinder {
         }
     }
 
+    /**
+     * Finds the first element matching any of the given locators, preferring earlier ones,
+     * with a single script round trip per poll. Self-healing is applied to the first locator
+     * if none of them match.
+     */
+    public static WebElement findAnyElement(WebDriver driver, String elementName, By... locators) {
+        if (locators.length == 1) {
+            return findElement(driver, locators[0], elementName);
+        }
+        try {
+            return findAnyWithExplicitWait(driver, elementName, locators).getElement();
+        } catch (TimeoutException e) {
+            logger.warn("None of the {} locators matched for {}", locators.length, elementName);
+            return findElement(driver, locators[0], elementName);
+        }
+    }
+
     private static WebElement findWithExplicitWait(WebDriver driver, By locator) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(
-            ConfigReader.getIntValue("explicit.wait", 10)));
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return SmartWait.on(driver).until("presence of element", ExpectedConditions.presenceOfElementLocated(locator));
     }
 
-    private static WebElement attemptSelfHealing(WebDriver driver, By originalLocator, String elementName) {
+    private static AnyOfCondition.Match findAnyWithExplicitWait(WebDriver driver, String elementName, By... locators) {
+        return SmartWait.on(driver).until("presence of any: " + elementName,
+                AnyOfCondition.presenceOfAny(elementName, locators));
+    }
+
+    private static LocatorProbe.Candidate attemptSelfHealing(WebDriver driver, By originalLocator, String elementName) {
         try {
             // Get alternative locators
             List<By> alternatives = generateAlternativeLocators(driver, originalLocator);
-            
-            // Try each alternative
-            for (By alternative : alternatives) {
-                try {
-                    WebElement element = findWithExplicitWait(driver, alternative);
-                    if (element != null && element.isDisplayed()) {
-                        // Store successful locator for future use
-                        healedLocators.put(createLocatorKey(originalLocator, elementName), alternative);
-                        logger.info("Self-healing successful for {} using: {}", elementName, alternative);
-                        return element;
-                    }
-                } catch (Exception e) {
-                    logger.debug("Alternative locator failed: {}", alternative);
-                }
+
+            // The original has already waited out its timeout, so all alternatives are probed in one round trip
+            List<LocatorProbe.Candidate> candidates = alternatives.isEmpty()
+                ? Collections.emptyList() : LocatorProbe.probe(driver, alternatives);
+            if (!candidates.isEmpty()) {
+                LocatorProbe.Candidate best = candidates.get(0);
+                logger.info("Self-healing successful for {} using: {}", elementName, best);
+                return best;
+            }
+            logger.debug("None of {} alternatives matched a visible element for {}", alternatives.size(), elementName);
+
+            // Fall back to the element that looks most like the one the original locator used to match
+            LocatorProbe.Candidate similar = SimilarityHealer.heal(driver, elementName, originalLocator, SIMILARITY_THRESHOLD);
+            if (similar != null) {
+                logger.info("Self-healing by similarity successful for {} using: {}", elementName, similar.getLocator());
+                return similar;
             }
         } catch (Exception e) {
+            if (isEnvironmentFailure(e)) {
+                throw (WebDriverException) e;
+            }
             logger.error("Self-healing attempt failed for: {}", elementName, e);
         }
         return null;
     }
 
+    /**
+     * A driver or transport error, as opposed to an element that is simply not on the page.
+     */
+    private static boolean isEnvironmentFailure(Throwable e) {
+        return e instanceof WebDriverException
+                && !(e instanceof org.openqa.selenium.NoSuchElementException)
+                && !(e instanceof TimeoutException)
+                && !(e instanceof StaleElementReferenceException)
+                && !(e instanceof InvalidSelectorException);
+    }
+
     private static List<By> generateAlternativeLocators(WebDriver driver, By originalLocator) {
         List<By> alternatives = new ArrayList<>();
-        String locatorString = originalLocator.toString();
+        List<String> encoded;
+        try {
+            encoded = AnyOfCondition.encode(originalLocator);
+        } catch (IllegalArgumentException e) {
+            return alternatives;
+        }
+        String strategy = encoded.get(0);
+        String value = encoded.get(1);
         
-        if (locatorString.contains("id=")) {
+        if ("id".equals(strategy)) {
             // Try partial ID match
-            String id = locatorString.split("id=")[1];
-            alternatives.add(By.cssSelector(String.format("[id*='%s']", id)));
+            alternatives.add(By.cssSelector(String.format("[id*='%s']", value)));
         }
         
-        if (locatorString.contains("className=")) {
+        if ("className".equals(strategy)) {
             // Try partial class match
-            String className = locatorString.split("className=")[1];
-            alternatives.add(By.cssSelector(String.format("[class*='%s']", className)));
+            alternatives.add(By.cssSelector(String.format("[class*='%s']", value)));
         }
 
-        if (locatorString.contains("xpath=")) {
+        if ("xpath".equals(strategy)) {
             // Generate dynamic XPath alternatives
-            alternatives.addAll(generateDynamicXPathAlternatives(locatorString));
+            alternatives.addAll(generateDynamicXPathAlternatives(value));
         }
 
         return alternatives;
@@ -116,9 +196,9 @@ public class SmartElementFinder {
         for (String attribute : attributes) {
             if (originalXPath.contains("@" + attribute)) {
                 // Try contains() instead of exact match
-                String relaxedXPath = originalXPath.replace(
-                    "@" + attribute + "='", 
-                    "contains(@" + attribute + ",'");
+                String relaxedXPath = originalXPath.replaceAll(
+                    "@" + attribute + "='([^']*)'",
+                    "contains(@" + attribute + ",'$1')");
                 alternatives.add(By.xpath(relaxedXPath));
             }
         }
@@ -126,10 +206,6 @@ public class SmartElementFinder {
         return alternatives;
     }
 
-    private static String createLocatorKey(By locator, String elementName) {
-        return elementName + ":" + locator.toString();
-    }
-
     // Custom exception for better error handling
     public static class ElementNotFoundException extends RuntimeException {
         public ElementNotFoundException(String message, Throwable cause) {
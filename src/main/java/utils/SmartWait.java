@@ -0,0 +1,185 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The framework's single explicit wait. Implicit waits are forced to zero by
+ * {@link WebDriverFactory}, so all waiting goes through here. Polling is adaptive: the first
+ * polls come quickly and the interval backs off up to {@code wait.polling.interval}.
+ * Timing statistics are kept per condition name.
+ */
+public class SmartWait {
+    private static final Logger logger = LogManager.getLogger(SmartWait.class);
+    private static final double BACKOFF_FACTOR = 1.5;
+    private static final Map<String, ConditionStats> statsByCondition = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final Duration initialPolling;
+    private final Duration maxPolling;
+    private final List<Class<? extends Throwable>> ignoredExceptions;
+
+    public SmartWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, Duration.ofMillis(50),
+                ConfigReader.current().getWaitPollingInterval(),
+                Arrays.asList(NotFoundException.class, StaleElementReferenceException.class));
+    }
+
+    private SmartWait(WebDriver driver, Duration timeout, Duration initialPolling, Duration maxPolling,
+                      List<Class<? extends Throwable>> ignoredExceptions) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.maxPolling = maxPolling;
+        this.initialPolling = initialPolling.compareTo(maxPolling) > 0 ? maxPolling : initialPolling;
+        this.ignoredExceptions = Collections.unmodifiableList(ignoredExceptions);
+    }
+
+    /**
+     * Wait with the configured {@code explicit.wait} timeout.
+     */
+    public static SmartWait on(WebDriver driver) {
+        return new SmartWait(driver, ConfigReader.current().getExplicitWait());
+    }
+
+    public SmartWait withTimeout(Duration newTimeout) {
+        return new SmartWait(driver, newTimeout, initialPolling, maxPolling, ignoredExceptions);
+    }
+
+    public SmartWait withPolling(Duration initial, Duration max) {
+        return new SmartWait(driver, timeout, initial, max, ignoredExceptions);
+    }
+
+    public SmartWait ignoring(Class<? extends Throwable> exceptionType) {
+        List<Class<? extends Throwable>> ignored = new ArrayList<>(ignoredExceptions);
+        ignored.add(exceptionType);
+        return new SmartWait(driver, timeout, initialPolling, maxPolling, ignored);
+    }
+
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        return until(describe(condition), condition);
+    }
+
+    /**
+     * Polls the condition until it returns a non-null, non-false value or the timeout expires.
+     */
+    public <T> T until(String conditionName, Function<? super WebDriver, T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long interval = initialPolling.toNanos();
+        int polls = 0;
+        Throwable lastException = null;
+
+        while (true) {
+            polls++;
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    record(conditionName, start, polls, true);
+                    return value;
+                }
+                lastException = null;
+            } catch (RuntimeException e) {
+                if (!isIgnored(e)) {
+                    record(conditionName, start, polls, false);
+                    throw e;
+                }
+                lastException = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                record(conditionName, start, polls, false);
+                throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d ms, %d polls)",
+                        conditionName, timeout.toMillis(), polls), lastException);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + conditionName, e);
+            }
+            interval = Math.min((long) (interval * BACKOFF_FACTOR), maxPolling.toNanos());
+        }
+    }
+
+    private boolean isIgnored(Throwable e) {
+        for (Class<? extends Throwable> ignored : ignoredExceptions) {
+            if (ignored.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Object condition) {
+        String description = String.valueOf(condition);
+        // Lambdas have no meaningful toString; group them rather than creating a key per instance
+        if (description.contains("$$Lambda")) {
+            return "custom condition";
+        }
+        // Element based conditions embed the session and element ids, which would make every key unique
+        int elementStart = description.indexOf('[');
+        return elementStart > 0 ? description.substring(0, elementStart).trim() : description;
+    }
+
+    private static void record(String conditionName, long startNanos, int polls, boolean satisfied) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        statsByCondition.computeIfAbsent(conditionName, key -> new ConditionStats())
+                .record(elapsedMillis, polls, satisfied);
+        logger.trace("Wait for {} {} after {}ms ({} polls)", conditionName,
+                satisfied ? "satisfied" : "failed", elapsedMillis, polls);
+    }
+
+    public static Map<String, String> getStats() {
+        Map<String, String> stats = new TreeMap<>();
+        statsByCondition.forEach((name, conditionStats) -> stats.put(name, conditionStats.toString()));
+        return stats;
+    }
+
+    public static void logSummary() {
+        getStats().forEach((name, stats) -> logger.info("Wait stats [{}]: {}", name, stats));
+    }
+
+    private static final class ConditionStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLong totalPolls = new AtomicLong();
+
+        void record(long millis, int polls, boolean satisfied) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            totalPolls.addAndGet(polls);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            if (!satisfied) {
+                failures.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            long waits = count.get();
+            return String.format("count=%d, failures=%d, avg=%dms, max=%dms, avgPolls=%.1f",
+                    waits, failures.get(), waits == 0 ? 0 : totalMillis.get() / waits, maxMillis.get(),
+                    waits == 0 ? 0.0 : (double) totalPolls.get() / waits);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders report event logs on demand, either as the lightweight streaming page or as an
+ * Extent Spark report. Spark builds its whole model in memory, so it is meant for an occasional
+ * look at a finished run rather than for every suite:
+ * <pre>
+ * java -cp ... utils.SparkReportRenderer reports/events-&lt;run&gt;.jsonl reports/Spark.html [--spark]
+ * </pre>
+ */
+public final class SparkReportRenderer {
+    private static final Logger logger = LogManager.getLogger(SparkReportRenderer.class);
+
+    private SparkReportRenderer() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: SparkReportRenderer <events.jsonl> <output.html> [--spark]");
+            System.exit(2);
+        }
+        Path events = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        if (args.length > 2 && "--spark".equals(args[2])) {
+            renderSpark(events, output);
+        } else {
+            renderHtml(events, output);
+        }
+    }
+
+    /**
+     * Streams the log through {@link HtmlReportRenderer}; memory stays bounded.
+     */
+    public static void renderHtml(Path events, Path output) {
+        long start = System.nanoTime();
+        try (HtmlReportRenderer renderer = new HtmlReportRenderer(output, "Selenium Test Results");
+             BufferedReader reader = Files.newBufferedReader(events, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    renderer.accept(ReportEvent.fromJson(line));
+                }
+            }
+            logger.info(String.format("Rendered %d tests from %s into %s in %.0fms", renderer.getRenderedCount(),
+                    events.getFileName(), output, (System.nanoTime() - start) / 1e6));
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to render report from " + events, e);
+        }
+    }
+
+    public static void renderSpark(Path events, Path output) {
+        ExtentReports extent = new ExtentReports();
+        ExtentSparkReporter spark = new ExtentSparkReporter(output.toString());
+        spark.config().setTheme(Theme.STANDARD);
+        spark.config().setDocumentTitle("Automation Test Report");
+        spark.config().setReportName("Selenium Test Results");
+        spark.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+        extent.attachReporter(spark);
+        extent.setReportUsesManualConfiguration(true);
+
+        Map<String, ExtentTest> open = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(events, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                ReportEvent event = ReportEvent.fromJson(line);
+                String id = event.get("run") + "/" + event.get("shard") + "/" + event.get(ReportEvent.TEST);
+                switch (event.getType()) {
+                    case RUN:
+                        event.getFields().forEach(extent::setSystemInfo);
+                        break;
+                    case START:
+                        ExtentTest test = extent.createTest(String.valueOf(event.get(ReportEvent.NAME)),
+                                event.get(ReportEvent.DESCRIPTION));
+                        test.getModel().setStartTime(new Date(event.getTimestamp()));
+                        open.put(id, test);
+                        break;
+                    case LOG:
+                        ExtentTest target = open.get(id);
+                        if (target != null) {
+                            log(target, event);
+                        }
+                        break;
+                    case END:
+                        ExtentTest ended = open.remove(id);
+                        if (ended != null) {
+                            ended.getModel().setEndTime(new Date(event.getTimestamp()));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to render report from " + events, e);
+        }
+        extent.flush();
+        logger.info("Rendered Spark report " + output + " from " + events.getFileName());
+    }
+
+    private static void log(ExtentTest test, ReportEvent event) {
+        Status status = status(event.get(ReportEvent.STATUS));
+        if (event.get(ReportEvent.ATTACHMENT) != null) {
+            test.addScreenCaptureFromPath(event.get(ReportEvent.ATTACHMENT));
+        }
+        String message = event.get(ReportEvent.MESSAGE);
+        if (event.get(ReportEvent.ERROR) != null) {
+            message = (message == null ? "" : message + "\n") + event.get(ReportEvent.ERROR);
+        }
+        if (message != null) {
+            test.log(status, message);
+        }
+    }
+
+    private static Status status(String status) {
+        switch (String.valueOf(status).toLowerCase(Locale.ROOT)) {
+            case "pass":
+                return Status.PASS;
+            case "fail":
+                return Status.FAIL;
+            case "skip":
+                return Status.SKIP;
+            case "warning":
+                return Status.WARNING;
+            default:
+                return Status.INFO;
+        }
+    }
+}
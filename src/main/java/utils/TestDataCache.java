@@ -0,0 +1,371 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses each test data sheet once per source version. Parsed sheets are kept in memory for
+ * the JVM and written as a compact binary snapshot next to the source file
+ * ({@code <file>#<sheet>.snapshot}) tagged with the SHA-256 of the source, so later calls,
+ * parallel forks and later runs load the snapshot until the workbook changes. Snapshot load
+ * time is logged next to the full parse time recorded when the snapshot was written.
+ */
+public final class TestDataCache {
+    private static final Logger logger = LogManager.getLogger(TestDataCache.class);
+    private static final int MAGIC = 0x54445331; // "TDS1"
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final Map<String, CompletableFuture<Sheet>> sheets = new ConcurrentHashMap<>();
+
+    private TestDataCache() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanValue("test.data.cache.enabled", true);
+    }
+
+    /**
+     * Returns the rows of a sheet as data provider rows, each a fresh {@code Map<String, String>}
+     * so tests can never see each other's changes.
+     */
+    public static Object[][] getRows(Path source, String sheetName) {
+        return getSheet(source, sheetName).toRows();
+    }
+
+    /**
+     * One load per sheet at a time. The load (hash, snapshot, parse) runs outside the map, so
+     * data providers for other sheets are never held up by it; callers for the same sheet wait
+     * for the load in flight.
+     */
+    private static Sheet getSheet(Path source, String sheetName) {
+        String key = source.toAbsolutePath() + "#" + sheetName;
+        while (true) {
+            CompletableFuture<Sheet> cached = sheets.get(key);
+            Sheet stale = null;
+            if (cached != null) {
+                if (!cached.isDone()) {
+                    return join(cached);
+                }
+                stale = join(cached);
+                if (stale.isCurrent(source)) {
+                    return stale;
+                }
+            }
+            CompletableFuture<Sheet> flight = new CompletableFuture<>();
+            boolean claimed = cached == null ? sheets.putIfAbsent(key, flight) == null : sheets.replace(key, cached, flight);
+            if (!claimed) {
+                // Another thread started a load meanwhile; wait for that one instead
+                continue;
+            }
+            try {
+                Sheet sheet = load(source, sheetName, stale);
+                flight.complete(sheet);
+                return sheet;
+            } catch (RuntimeException e) {
+                // Leave nothing behind, so the next call retries once the file is fixed
+                sheets.remove(key, flight);
+                flight.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Sheet join(CompletableFuture<Sheet> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Drops in-memory copies; snapshots on disk stay and are revalidated against the source.
+     */
+    public static void clear() {
+        sheets.clear();
+    }
+
+    static Path snapshotPath(Path source, String sheetName) {
+        String sheet = sheetName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return source.resolveSibling(source.getFileName() + "#" + sheet + SNAPSHOT_SUFFIX);
+    }
+
+    private static Sheet load(Path source, String sheetName, Sheet stale) {
+        if (!Files.isRegularFile(source)) {
+            throw new FrameworkException("Test data file not found: " + source);
+        }
+        long size;
+        long modified;
+        byte[] hash;
+        try {
+            size = Files.size(source);
+            modified = Files.getLastModifiedTime(source).toMillis();
+            hash = sha256(source);
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to read test data file: " + source, e);
+        }
+        if (stale != null && Arrays.equals(stale.hash, hash)) {
+            // Touched but not changed
+            return stale.restamp(size, modified);
+        }
+
+        Path snapshot = snapshotPath(source, sheetName);
+        long start = System.nanoTime();
+        Sheet sheet = readSnapshot(snapshot, hash, size, modified);
+        if (sheet != null) {
+            long loadNanos = System.nanoTime() - start;
+            logger.info(String.format("Loaded snapshot of %s - %s (%d rows) in %.1fms; full parse took %.1fms (%.1fx faster)",
+                    source.getFileName(), sheetName, sheet.values.length, loadNanos / 1e6, sheet.parseNanos / 1e6,
+                    (double) sheet.parseNanos / Math.max(1, loadNanos)));
+            return sheet;
+        }
+
+        start = System.nanoTime();
+        sheet = parse(source, sheetName, hash, size, modified);
+        sheet.parseNanos = System.nanoTime() - start;
+        logger.info(String.format("Parsed %s - %s (%d rows) in %.1fms, writing snapshot %s",
+                source.getFileName(), sheetName, sheet.values.length, sheet.parseNanos / 1e6, snapshot.getFileName()));
+        writeSnapshot(snapshot, sheet);
+        return sheet;
+    }
+
+    private static Sheet parse(Path source, String sheetName, byte[] hash, long size, long modified) {
+        List<String> columns = null;
+        List<String[]> values = new ArrayList<>();
+        try (XlsxStreamReader reader = new XlsxStreamReader(source.toFile(), sheetName)) {
+            while (reader.hasNext()) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> row = (Map<String, String>) reader.next()[0];
+                if (columns == null) {
+                    columns = new ArrayList<>(row.keySet());
+                }
+                values.add(row.values().toArray(new String[0]));
+            }
+        }
+        String[] header = columns == null ? new String[0] : columns.toArray(new String[0]);
+        return new Sheet(hash, size, modified, header, values.toArray(new String[0][]));
+    }
+
+    /**
+     * Layout: magic, source hash, parse nanos, string table, column indexes, row count, then one
+     * string table index per cell. Repeated values (categories, tags, expected results) are
+     * stored once.
+     */
+    private static void writeSnapshot(Path snapshot, Sheet sheet) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        index.put("", 0);
+        for (String column : sheet.columns) {
+            index.putIfAbsent(column, index.size());
+        }
+        for (String[] row : sheet.values) {
+            for (String value : row) {
+                index.putIfAbsent(value, index.size());
+            }
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.write(sheet.hash);
+                out.writeLong(sheet.parseNanos);
+                out.writeInt(index.size());
+                for (String value : index.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, bytes.length);
+                    out.write(bytes);
+                }
+                writeVarInt(out, sheet.columns.length);
+                for (String column : sheet.columns) {
+                    writeVarInt(out, index.get(column));
+                }
+                out.writeInt(sheet.values.length);
+                for (String[] row : sheet.values) {
+                    for (int i = 0; i < sheet.columns.length; i++) {
+                        writeVarInt(out, i < row.length ? index.get(row[i]) : 0);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // The sheet is still cached in memory; only later runs lose the shortcut
+            logger.warn("Could not write test data snapshot " + snapshot + ": " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    private static Sheet readSnapshot(Path snapshot, byte[] hash, long size, long modified) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+            byte[] storedHash = new byte[hash.length];
+            if (in.readInt() != MAGIC) {
+                logger.debug("Ignoring snapshot with unknown format: {}", snapshot);
+                return null;
+            }
+            in.readFully(storedHash);
+            if (!Arrays.equals(storedHash, hash)) {
+                logger.info("Test data changed since snapshot {} was written, re-parsing", snapshot.getFileName());
+                return null;
+            }
+            long parseNanos = in.readLong();
+            String[] table = new String[in.readInt()];
+            byte[] buffer = new byte[256];
+            for (int i = 0; i < table.length; i++) {
+                int length = readVarInt(in);
+                if (length > buffer.length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                in.readFully(buffer, 0, length);
+                table[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            }
+            String[] columns = new String[readVarInt(in)];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = table[readVarInt(in)];
+            }
+            String[][] values = new String[in.readInt()][];
+            for (int r = 0; r < values.length; r++) {
+                String[] row = new String[columns.length];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = table[readVarInt(in)];
+                }
+                values[r] = row;
+            }
+            Sheet sheet = new Sheet(hash, size, modified, columns, values);
+            sheet.parseNanos = parseNanos;
+            return sheet;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable test data snapshot " + snapshot + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] sha256(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed snapshot");
+    }
+
+    /**
+     * An immutable parsed sheet plus the source version it was parsed from.
+     */
+    private static final class Sheet {
+        private final byte[] hash;
+        private final long size;
+        private final long modified;
+        private final String[] columns;
+        private final String[][] values;
+        private long parseNanos;
+
+        Sheet(byte[] hash, long size, long modified, String[] columns, String[][] values) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+            this.columns = columns;
+            this.values = values;
+        }
+
+        /**
+         * Size and timestamp are only a shortcut; a changed stamp triggers a re-hash, not a re-parse.
+         */
+        boolean isCurrent(Path source) {
+            try {
+                return Files.size(source) == size && Files.getLastModifiedTime(source).toMillis() == modified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        Sheet restamp(long newSize, long newModified) {
+            Sheet sheet = new Sheet(hash, newSize, newModified, columns, values);
+            sheet.parseNanos = parseNanos;
+            return sheet;
+        }
+
+        Object[][] toRows() {
+            Object[][] rows = new Object[values.length][];
+            for (int r = 0; r < values.length; r++) {
+                Map<String, String> row = new LinkedHashMap<>(columns.length * 2);
+                for (int i = 0; i < columns.length; i++) {
+                    row.put(columns[i], values[r][i]);
+                }
+                rows[r] = new Object[]{row};
+            }
+            return rows;
+        }
+    }
+}
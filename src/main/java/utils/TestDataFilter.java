@@ -0,0 +1,321 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Selects data provider rows before TestNG ever schedules them, so skipped rows never cost a
+ * browser. Configured through system properties (or config.properties):
+ * <ul>
+ *     <li>{@code data.filter} - clauses joined by {@code ;}, each {@code column=value} or
+ *     {@code column!=value}; {@code |} separates alternatives, e.g.
+ *     {@code -Ddata.filter="tags=Smoke|Regression;category!=Invalid"}. Column names and values
+ *     are case-insensitive; cells holding several values ({@code Smoke,Regression}) match any of them.</li>
+ *     <li>{@code data.shard} - {@code i/n} with {@code 1 <= i <= n}; keeps the rows whose key (first
+ *     column) hashes to slice i, so each CI node gets a disjoint, stable slice.</li>
+ * </ul>
+ * Eager data sets are filtered through a value index on the filtered columns; lazy ones are
+ * filtered row by row with the same result.
+ */
+public final class TestDataFilter {
+    private static final Logger logger = LogManager.getLogger(TestDataFilter.class);
+    private static final String VALUE_SEPARATORS = "[,;|]";
+
+    private final String expression;
+    private final List<Clause> clauses;
+    private final int shardIndex;
+    private final int shardCount;
+
+    private TestDataFilter(String expression, List<Clause> clauses, int shardIndex, int shardCount) {
+        this.expression = expression;
+        this.clauses = clauses;
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Reads {@code data.filter} and {@code data.shard} on every call, so suites can change them between runs.
+     */
+    public static TestDataFilter fromConfig() {
+        return parse(ConfigReader.getValue("data.filter", ""), ConfigReader.getValue("data.shard", ""));
+    }
+
+    public static TestDataFilter parse(String filter, String shard) {
+        List<Clause> clauses = new ArrayList<>();
+        String expression = filter == null ? "" : filter.trim();
+        for (String part : expression.split(";")) {
+            if (!part.trim().isEmpty()) {
+                clauses.add(Clause.parse(part.trim()));
+            }
+        }
+        int index = 0;
+        int count = 1;
+        if (shard != null && !shard.trim().isEmpty()) {
+            String[] parts = shard.trim().split("/");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException();
+                }
+                index = Integer.parseInt(parts[0].trim()) - 1;
+                count = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new FrameworkException("Invalid data.shard '" + shard + "', expected i/n such as 1/4");
+            }
+            if (count < 1 || index < 0 || index >= count) {
+                throw new FrameworkException("Invalid data.shard '" + shard + "', i must be between 1 and n");
+            }
+        }
+        return new TestDataFilter(expression, Collections.unmodifiableList(clauses), index, count);
+    }
+
+    public boolean isActive() {
+        return !clauses.isEmpty() || shardCount > 1;
+    }
+
+    /**
+     * Filters eager data provider rows ({@code Object[]{Map<String, String>}}).
+     */
+    public Object[][] apply(Object[][] rows, String source) {
+        if (!isActive() || rows.length == 0) {
+            return rows;
+        }
+        List<Map<String, String>> maps = new ArrayList<>(rows.length);
+        for (Object[] row : rows) {
+            maps.add(asMap(row));
+        }
+        BitSet selected = new BitSet(rows.length);
+        selected.set(0, rows.length);
+        Map<String, String> columns = columnNames(maps.get(0));
+        for (Clause clause : clauses) {
+            String column = columns.get(clause.column);
+            if (column == null) {
+                warnMissing(clause, source, columns);
+                continue;
+            }
+            selected.and(clause.select(ColumnIndex.build(maps, column), rows.length));
+        }
+        if (shardCount > 1) {
+            String keyColumn = maps.get(0).isEmpty() ? null : maps.get(0).keySet().iterator().next();
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                if (!inShard(keyColumn == null ? null : maps.get(i).get(keyColumn), i)) {
+                    selected.clear(i);
+                }
+            }
+        }
+        Object[][] result = new Object[selected.cardinality()][];
+        int next = 0;
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            result[next++] = rows[i];
+        }
+        logSelection(source, result.length, rows.length);
+        return result;
+    }
+
+    /**
+     * Filters a lazy data provider as TestNG pulls rows; rows that are dropped are never handed out.
+     */
+    public Iterator<Object[]> apply(Iterator<Object[]> rows, String source) {
+        if (!isActive()) {
+            return rows;
+        }
+        return new Iterator<Object[]>() {
+            private Object[] next;
+            private Map<String, String> columns;
+            private String keyColumn;
+            private int index;
+            private int kept;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    Object[] candidate = rows.next();
+                    Map<String, String> row = asMap(candidate);
+                    if (columns == null) {
+                        columns = columnNames(row);
+                        keyColumn = row.isEmpty() ? null : row.keySet().iterator().next();
+                        for (Clause clause : clauses) {
+                            if (!columns.containsKey(clause.column)) {
+                                warnMissing(clause, source, columns);
+                            }
+                        }
+                    }
+                    if (matches(row) && (shardCount == 1 || inShard(keyColumn == null ? null : row.get(keyColumn), index))) {
+                        next = candidate;
+                        kept++;
+                    }
+                    index++;
+                }
+                if (next == null && index >= 0) {
+                    logSelection(source, kept, index);
+                    index = -1;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+
+            private boolean matches(Map<String, String> row) {
+                for (Clause clause : clauses) {
+                    String column = columns.get(clause.column);
+                    if (column != null && !clause.matches(row.get(column))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Stable across row order and row insertions: a row stays on its node as long as its key does.
+     * Rows without a key fall back to their position.
+     */
+    private boolean inShard(String key, int rowIndex) {
+        int hash;
+        if (key == null || key.trim().isEmpty()) {
+            hash = rowIndex;
+        } else {
+            // FNV-1a over UTF-8 so the assignment does not depend on String.hashCode
+            hash = 0x811C9DC5;
+            for (byte b : key.trim().getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * 0x01000193;
+            }
+        }
+        return Math.floorMod(hash, shardCount) == shardIndex;
+    }
+
+    private void logSelection(String source, int kept, int total) {
+        logger.info("Selected {} of {} rows from {} (filter: {}, shard: {})", kept, total, source,
+                expression.isEmpty() ? "none" : expression, shardCount > 1 ? (shardIndex + 1) + "/" + shardCount : "none");
+    }
+
+    private static void warnMissing(Clause clause, String source, Map<String, String> columns) {
+        logger.warn("Ignoring data.filter clause '{}' for {}: no such column (has {})", clause, source, columns.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> asMap(Object[] row) {
+        if (row.length == 0 || !(row[0] instanceof Map)) {
+            throw new FrameworkException("Data provider rows must be Object[]{Map<String, String>} to be filtered");
+        }
+        return (Map<String, String>) row[0];
+    }
+
+    private static Map<String, String> columnNames(Map<String, String> row) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String column : row.keySet()) {
+            names.putIfAbsent(normalize(column), column);
+        }
+        return names;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> cellValues(String cell) {
+        Set<String> values = new LinkedHashSet<>();
+        values.add(normalize(cell));
+        if (cell != null) {
+            for (String part : cell.split(VALUE_SEPARATORS)) {
+                values.add(normalize(part));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Normalized cell value to the rows holding it, for one column.
+     */
+    private static final class ColumnIndex {
+        private final Map<String, BitSet> rowsByValue = new HashMap<>();
+
+        static ColumnIndex build(List<Map<String, String>> rows, String column) {
+            ColumnIndex index = new ColumnIndex();
+            for (int i = 0; i < rows.size(); i++) {
+                for (String value : cellValues(rows.get(i).get(column))) {
+                    index.rowsByValue.computeIfAbsent(value, v -> new BitSet()).set(i);
+                }
+            }
+            return index;
+        }
+
+        BitSet rows(String value) {
+            BitSet rows = rowsByValue.get(value);
+            return rows == null ? new BitSet() : rows;
+        }
+    }
+
+    private static final class Clause {
+        private final String column;
+        private final boolean negated;
+        private final Set<String> values;
+        private final String text;
+
+        private Clause(String column, boolean negated, Set<String> values, String text) {
+            this.column = column;
+            this.negated = negated;
+            this.values = values;
+            this.text = text;
+        }
+
+        static Clause parse(String text) {
+            int not = text.indexOf("!=");
+            int eq = text.indexOf('=');
+            boolean negated = not >= 0 && not < eq;
+            int split = negated ? not : eq;
+            if (split <= 0) {
+                throw new FrameworkException("Invalid data.filter clause '" + text + "', expected column=value or column!=value");
+            }
+            Set<String> values = new LinkedHashSet<>();
+            for (String value : text.substring(split + (negated ? 2 : 1)).split("\\|")) {
+                values.add(normalize(value));
+            }
+            return new Clause(normalize(text.substring(0, split)), negated, values, text);
+        }
+
+        BitSet select(ColumnIndex index, int rowCount) {
+            BitSet selected = new BitSet(rowCount);
+            for (String value : values) {
+                selected.or(index.rows(value));
+            }
+            if (negated) {
+                selected.flip(0, rowCount);
+            }
+            return selected;
+        }
+
+        boolean matches(String cell) {
+            boolean any = !Collections.disjoint(values, cellValues(cell));
+            return negated != any;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
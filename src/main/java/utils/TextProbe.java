@@ -0,0 +1,142 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Looks for indicator phrases in the visible text of a page region without pulling the page
+ * source over the wire. The matching runs inside the browser and only the matched phrase
+ * comes back. When the source is already in hand, {@link AhoCorasickMatcher} does the
+ * same in a single pass on the JVM side.
+ */
+public final class TextProbe {
+    private static final Logger logger = LogManager.getLogger(TextProbe.class);
+
+    private static final String PROBE_SCRIPT =
+            "var scopes = arguments[0], indicators = arguments[1], root = null;"
+            + "for (var i = 0; i < scopes.length && !root; i++) { root = document.querySelector(scopes[i]); }"
+            + "root = root || document.body;"
+            + "var text = (root.innerText || '').toLowerCase();"
+            + "var match = null;"
+            + "for (var j = 0; j < indicators.length; j++) {"
+            + "  if (text.indexOf(indicators[j]) >= 0) { match = indicators[j]; break; }"
+            + "}"
+            // Size of the HTML document as delivered, from navigation timing; serializing the
+            // DOM to measure it would cost what the probe is meant to save
+            + "var nav = window.performance && performance.getEntriesByType"
+            + "  ? performance.getEntriesByType('navigation')[0] : null;"
+            + "return [match, nav && nav.decodedBodySize ? nav.decodedBodySize : 0];";
+
+    private static final AtomicLong probeCount = new AtomicLong();
+    private static final AtomicLong totalBytesTransferred = new AtomicLong();
+    private static final AtomicLong totalBytesAvoided = new AtomicLong();
+    private static final AtomicLong totalProbeNanos = new AtomicLong();
+
+    private TextProbe() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Searches the visible text of the first existing scope (CSS selectors, falling back to
+     * the body) for any of the lower-case indicators.
+     */
+    public static ProbeResult probe(WebDriver driver, List<String> scopeSelectors, List<String> indicators) {
+        long start = System.nanoTime();
+        String match;
+        long bytesTransferred;
+        long bytesAvoided;
+        try {
+            List<?> result = (List<?>) ((JavascriptExecutor) driver)
+                    .executeScript(PROBE_SCRIPT, scopeSelectors, indicators);
+            match = (String) result.get(0);
+            bytesTransferred = utf8Length(PROBE_SCRIPT) + utf8Length(scopeSelectors.toString())
+                    + utf8Length(indicators.toString()) + (match == null ? 4 : utf8Length(match));
+            long documentBytes = ((Number) result.get(1)).longValue();
+            bytesAvoided = documentBytes == 0 ? 0 : Math.max(0, documentBytes - bytesTransferred);
+        } catch (Exception e) {
+            // Script execution unavailable, fall back to scanning the page source once
+            logger.debug("In-browser text probe failed, scanning page source: {}", e.getMessage());
+            String source = driver.getPageSource();
+            match = new AhoCorasickMatcher(indicators, true).findFirst(source);
+            bytesTransferred = utf8Length(source);
+            bytesAvoided = 0;
+        }
+        return record(new ProbeResult(match, bytesTransferred, bytesAvoided, System.nanoTime() - start));
+    }
+
+    /**
+     * JVM-side variant for callers that already hold the page source.
+     */
+    public static ProbeResult probeSource(String source, AhoCorasickMatcher matcher) {
+        long start = System.nanoTime();
+        String match = matcher.findFirst(source);
+        return record(new ProbeResult(match, 0, 0, System.nanoTime() - start));
+    }
+
+    private static ProbeResult record(ProbeResult result) {
+        probeCount.incrementAndGet();
+        totalBytesTransferred.addAndGet(result.bytesTransferred);
+        totalBytesAvoided.addAndGet(result.bytesAvoided);
+        totalProbeNanos.addAndGet(result.elapsedNanos);
+        logger.debug("Text probe matched '{}' in {}ms, {} bytes transferred, ~{} bytes avoided",
+                result.match, result.getElapsedMillis(), result.bytesTransferred, result.bytesAvoided);
+        return result;
+    }
+
+    private static long utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static String getStatsSummary() {
+        long probes = probeCount.get();
+        return String.format("Text probes: count=%d, bytesTransferred=%d, bytesAvoided=%d, avg=%dms",
+                probes, totalBytesTransferred.get(), totalBytesAvoided.get(),
+                probes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalProbeNanos.get() / probes));
+    }
+
+    public static final class ProbeResult {
+        private final String match;
+        private final long bytesTransferred;
+        private final long bytesAvoided;
+        private final long elapsedNanos;
+
+        private ProbeResult(String match, long bytesTransferred, long bytesAvoided, long elapsedNanos) {
+            this.match = match;
+            this.bytesTransferred = bytesTransferred;
+            this.bytesAvoided = bytesAvoided;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public boolean isMatched() {
+            return match != null;
+        }
+
+        public String getMatch() {
+            return match;
+        }
+
+        public long getBytesTransferred() {
+            return bytesTransferred;
+        }
+
+        /**
+         * Approximate size of what a {@code getPageSource()} call would have shipped instead,
+         * estimated from the HTML document's size in navigation timing; 0 when the browser
+         * does not report it. Pages built up by script will serialize larger than this.
+         */
+        public long getBytesAvoided() {
+            return bytesAvoided;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+}
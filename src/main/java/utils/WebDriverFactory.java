@@ -1,6 +1,5 @@
 package utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
@@ -12,10 +11,13 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 public class WebDriverFactory {
     private static final Logger logger = LogManager.getLogger(WebDriverFactory.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static volatile DriverPool driverPool;
+    private static volatile DriverPrewarmer prewarmer;
 
     public static WebDriver getDriver() {
         if (driverThreadLocal.get() == null) {
@@ -26,8 +28,7 @@ public class WebDriverFactory {
 
     public static void initializeDriver() {
         try {
-            WebDriver driver = createDriver();
-            configureDriver(driver);
+            WebDriver driver = isPoolEnabled() ? getPool().borrow() : obtainNewDriver();
             driverThreadLocal.set(driver);
             logger.info("WebDriver initialized successfully");
         } catch (Exception e) {
@@ -36,18 +37,101 @@ public class WebDriverFactory {
         }
     }
 
+    private static WebDriver createConfiguredDriver() {
+        WebDriver driver = createDriver();
+        configureDriver(driver);
+        return driver;
+    }
+
+    private static WebDriver obtainNewDriver() {
+        DriverPrewarmer warmer = prewarmer;
+        if (warmer != null) {
+            WebDriver driver = warmer.poll();
+            if (driver != null) {
+                logger.info("Using pre-warmed WebDriver session (queue depth {})", warmer.getQueueDepth());
+                return driver;
+            }
+        }
+        return createConfiguredDriver();
+    }
+
+    /**
+     * Starts launching browsers in the background, sized from the suite thread count unless
+     * driver.prewarm.size is set. Does nothing when driver.prewarm.enabled is false. With the
+     * pool on, spares only fill the pool: pooled plus spare browsers never exceed the pool size.
+     */
+    public static synchronized void startPrewarming(int suiteThreadCount) {
+        if (prewarmer != null || !ConfigReader.getBooleanValue("driver.prewarm.enabled", false)) {
+            return;
+        }
+        int size = ConfigReader.getIntValue("driver.prewarm.size", Math.max(1, suiteThreadCount));
+        if (isPoolEnabled()) {
+            size = Math.min(size, poolSize());
+        }
+        DriverPrewarmer warmer = new DriverPrewarmer(WebDriverFactory::createConfiguredDriver,
+                ConfigReader.getValue("app.url"), size, WebDriverFactory::spareLimit);
+        warmer.start();
+        prewarmer = warmer;
+    }
+
+    /**
+     * Spare browsers worth keeping: unlimited without the pool, otherwise the room the pool has
+     * left for new sessions after its idle and leased ones.
+     */
+    private static int spareLimit() {
+        DriverPool pool = driverPool;
+        if (pool == null || !isPoolEnabled()) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, pool.getMaxSize() - pool.getIdleCount() - pool.getLeasedCount());
+    }
+
+    private static int poolSize() {
+        return ConfigReader.getIntValue("driver.pool.size", ConfigReader.getIntValue("thread.count", 2));
+    }
+
+    private static boolean isPoolEnabled() {
+        return ConfigReader.getBooleanValue("driver.pool.enabled", false);
+    }
+
+    private static DriverPool getPool() {
+        DriverPool pool = driverPool;
+        if (pool == null) {
+            synchronized (WebDriverFactory.class) {
+                pool = driverPool;
+                if (pool == null) {
+                    int size = poolSize();
+                    int maxUses = ConfigReader.getIntValue("driver.pool.max.uses", 20);
+                    long maxAgeMillis = ConfigReader.getIntValue("driver.pool.max.age.minutes", 30) * 60_000L;
+                    long borrowTimeoutMillis = ConfigReader.getIntValue("driver.pool.borrow.timeout", 120) * 1000L;
+                    pool = new DriverPool(WebDriverFactory::obtainNewDriver, size, maxUses,
+                            maxAgeMillis, borrowTimeoutMillis);
+                    driverPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
     private static void configureDriver(WebDriver driver) {
-        int implicitWait = ConfigReader.getIntValue("implicit.wait", 10);
+        int implicitWait = ConfigReader.getIntValue("implicit.wait", 0);
         int pageLoadTimeout = ConfigReader.getIntValue("page.load.timeout", 30);
         int scriptTimeout = ConfigReader.getIntValue("script.timeout", 30);
 
         driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
+        // Implicit waits make every findElements probe for an absent element stall and compound
+        // with explicit waits, so they are always disabled; SmartWait does all the waiting
+        if (implicitWait != 0) {
+            logger.warn("implicit.wait=" + implicitWait + " is ignored, implicit waits are always 0");
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
         driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(scriptTimeout));
+        ResourceBlocker.install(driver);
+        PageReadiness.install(driver);
 
-        logger.info(String.format("WebDriver configured with implicitWait=%ds, pageLoadTimeout=%ds, scriptTimeout=%ds",
-                implicitWait, pageLoadTimeout, scriptTimeout));
+        logger.info(String.format("WebDriver configured with implicitWait=0s, pageLoadTimeout=%ds, scriptTimeout=%ds",
+                pageLoadTimeout, scriptTimeout));
     }
 
     private static WebDriver createDriver() {
@@ -57,17 +141,26 @@ public class WebDriverFactory {
         logger.info("Creating WebDriver instance for browser: " + browser);
         
         try {
+            long start = System.nanoTime();
+            WebDriver driver;
             switch (browser) {
                 case "chrome":
-                    return createChromeDriver(isHeadless);
+                    driver = createChromeDriver(isHeadless);
+                    break;
                 case "firefox":
-                    return createFirefoxDriver(isHeadless);
+                    driver = createFirefoxDriver(isHeadless);
+                    break;
                 case "edge":
-                    return createEdgeDriver(isHeadless);
+                    driver = createEdgeDriver(isHeadless);
+                    break;
                 default:
                     logger.warn("Unsupported browser: " + browser + ". Defaulting to Chrome");
-                    return createChromeDriver(isHeadless);
+                    driver = createChromeDriver(isHeadless);
             }
+            logger.info(String.format("Started %s session in %dms (driver cache hits=%d, misses=%d)", browser,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    DriverBinaryResolver.getCacheHits(), DriverBinaryResolver.getCacheMisses()));
+            return driver;
         } catch (Exception e) {
             logger.error("Failed to create WebDriver for browser " + browser + ": " + e.getMessage(), e);
             throw new RuntimeException("Failed to create WebDriver for browser " + browser, e);
@@ -75,7 +168,7 @@ public class WebDriverFactory {
     }
 
     private static WebDriver createChromeDriver(boolean isHeadless) {
-        WebDriverManager.chromedriver().setup();
+        DriverBinaryResolver.resolve("chrome");
         ChromeOptions options = new ChromeOptions();
         if (isHeadless) {
             options.addArguments("--headless=new");
@@ -84,36 +177,87 @@ public class WebDriverFactory {
         options.addArguments("--disable-notifications");
         options.addArguments("--disable-popup-blocking");
         options.addArguments("--remote-allow-origins=*");
+        if (DriverServiceManager.isEnabled()) {
+            return DriverServiceManager.createSession("chrome", options);
+        }
         return new ChromeDriver(options);
     }
 
     private static WebDriver createFirefoxDriver(boolean isHeadless) {
-        WebDriverManager.firefoxdriver().setup();
+        DriverBinaryResolver.resolve("firefox");
         FirefoxOptions options = new FirefoxOptions();
         if (isHeadless) {
             options.addArguments("-headless");
         }
         options.addArguments("-start-maximized");
+        ResourceBlocker.applyFirefoxOptions(options);
+        if (DriverServiceManager.isEnabled()) {
+            return DriverServiceManager.createSession("firefox", options);
+        }
         return new FirefoxDriver(options);
     }
 
     private static WebDriver createEdgeDriver(boolean isHeadless) {
-        WebDriverManager.edgedriver().setup();
+        DriverBinaryResolver.resolve("edge");
         EdgeOptions options = new EdgeOptions();
         if (isHeadless) {
             options.addArguments("--headless=new");
         }
         options.addArguments("--start-maximized");
         options.addArguments("--remote-allow-origins=*");
+        if (DriverServiceManager.isEnabled()) {
+            return DriverServiceManager.createSession("edge", options);
+        }
         return new EdgeDriver(options);
     }
 
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            logger.info("Quitting WebDriver instance");
-            driver.quit();
-            driverThreadLocal.remove();
+            try {
+                if (driverPool != null && isPoolEnabled()) {
+                    logger.info("Returning WebDriver instance to pool");
+                    driverPool.release(driver);
+                } else {
+                    logger.info("Quitting WebDriver instance");
+                    driver.quit();
+                }
+            } finally {
+                driverThreadLocal.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards the current thread's driver instead of returning it to the pool,
+     * e.g. when the browser crashed during the test.
+     */
+    public static void invalidateDriver() {
+        WebDriver driver = driverThreadLocal.get();
+        if (driver != null) {
+            try {
+                if (driverPool != null && isPoolEnabled()) {
+                    driverPool.invalidate(driver);
+                } else {
+                    driver.quit();
+                }
+            } finally {
+                driverThreadLocal.remove();
+            }
+        }
+    }
+
+    public static void shutdown() {
+        DriverPrewarmer warmer = prewarmer;
+        if (warmer != null) {
+            warmer.shutdown();
+            prewarmer = null;
+        }
+        DriverPool pool = driverPool;
+        if (pool != null) {
+            pool.shutdown();
+            driverPool = null;
         }
+        DriverServiceManager.stopAll();
     }
 }
@@ -0,0 +1,242 @@
+package utils;
+
+import constants.FrameworkException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads an XLSX sheet through POI's SAX event API and hands rows out lazily as TestNG data
+ * provider rows ({@code Object[]{Map<String, String>}} keyed by the header row). Parsing runs
+ * on a background thread that feeds a small bounded queue, so memory use does not depend on
+ * the size of the sheet. Throughput is logged once the sheet has been read.
+ * <p>
+ * The reader closes itself once exhausted. A reader TestNG stops pulling from (an aborted run,
+ * a failing listener) is closed by {@link #closeAll()} at suite end, and its parser gives up on
+ * its own after {@code test.data.stream.idle.timeout} seconds without a row being taken, so the
+ * workbook is never held open for the rest of the JVM.
+ */
+public class XlsxStreamReader implements Iterator<Object[]>, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(XlsxStreamReader.class);
+    private static final int QUEUE_CAPACITY = 256;
+    private static final Object[] END = new Object[0];
+    private static final Set<XlsxStreamReader> openReaders = ConcurrentHashMap.newKeySet();
+
+    private final File file;
+    private final String sheetName;
+    private final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread parserThread;
+    private final long startNanos = System.nanoTime();
+    private final long idleTimeoutNanos;
+
+    private volatile boolean closed;
+    private volatile long lastTakeNanos = startNanos;
+    private volatile Throwable failure;
+    private Object[] next;
+    private long rowsRead;
+
+    public XlsxStreamReader(File file, String sheetName) {
+        if (!file.isFile()) {
+            throw new FrameworkException("Test data file not found: " + file);
+        }
+        this.file = file;
+        this.sheetName = sheetName;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(ConfigReader.getIntValue("test.data.stream.idle.timeout", 900));
+        openReaders.add(this);
+        this.parserThread = new Thread(this::parse, "xlsx-reader-" + sheetName);
+        parserThread.setDaemon(true);
+        parserThread.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (closed) {
+                return false;
+            }
+            try {
+                next = queue.take();
+                lastTakeNanos = System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FrameworkException("Interrupted while reading " + sheetName, e);
+            }
+        }
+        if (next == END) {
+            finish();
+            if (failure != null) {
+                throw new FrameworkException("Failed to read test data from excel: " + file.getName()
+                        + " - " + sheetName, failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        rowsRead++;
+        return row;
+    }
+
+    /**
+     * Stops the parser early, e.g. when a data provider is abandoned half way.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            openReaders.remove(this);
+            parserThread.interrupt();
+            queue.clear();
+        }
+    }
+
+    /**
+     * Closes readers whose consumer stopped before the end of the sheet; called at suite end.
+     */
+    public static void closeAll() {
+        for (XlsxStreamReader reader : openReaders) {
+            logger.warn("Closing test data reader for {} - {} that was not read to the end", reader.file.getName(),
+                    reader.sheetName);
+            reader.close();
+        }
+    }
+
+    private void finish() {
+        if (closed) {
+            return;
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        logger.info("Streamed {} rows from {} - {} in {}ms ({} rows/sec)", rowsRead, file.getName(), sheetName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), String.format("%.0f", rowsRead / seconds));
+        close();
+    }
+
+    private void parse() {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (sheetName.equals(sheets.getSheetName())) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                                new RowHandler(), new DataFormatter(), false));
+                        parser.parse(new InputSource(sheet));
+                        return;
+                    }
+                }
+            }
+            throw new FrameworkException("Sheet not found: " + sheetName + " in " + file.getName());
+        } catch (Exception e) {
+            if (closed || e instanceof StopParsing || e.getCause() instanceof StopParsing) {
+                logger.debug("Stopped reading {} - {} early", file.getName(), sheetName);
+            } else {
+                failure = e;
+            }
+        } finally {
+            try {
+                publish(END);
+            } catch (StopParsing e) {
+                // Reader already closed, nobody is waiting for the end marker
+            }
+        }
+    }
+
+    private void publish(Object[] row) {
+        try {
+            // Bounded wait so a closed reader never leaves the parser blocked on a full queue
+            while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new StopParsing();
+                }
+                if (System.nanoTime() - lastTakeNanos > idleTimeoutNanos) {
+                    // Nobody has taken a row for too long; release the workbook. A consumer that
+                    // comes back gets this failure instead of a silently short sheet.
+                    failure = new FrameworkException("Gave up reading " + file.getName() + " - " + sheetName
+                            + " after no row was taken for " + TimeUnit.NANOSECONDS.toSeconds(idleTimeoutNanos) + "s");
+                    logger.warn(failure.getMessage());
+                    queue.clear();
+                    throw new StopParsing();
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new StopParsing();
+        }
+    }
+
+    private final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private List<String> headers;
+        private final List<String> values = new ArrayList<>();
+
+        @Override
+        public void startRow(int rowNum) {
+            if (closed) {
+                throw new StopParsing();
+            }
+            values.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? values.size() : new CellReference(cellReference).getCol();
+            while (values.size() < column) {
+                values.add("");
+            }
+            values.add(formattedValue == null ? "" : formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headers == null) {
+                headers = Collections.unmodifiableList(new ArrayList<>(values));
+                return;
+            }
+            Map<String, String> rowData = new LinkedHashMap<>();
+            for (int i = 0; i < headers.size(); i++) {
+                rowData.put(headers.get(i), i < values.size() ? values.get(i) : "");
+            }
+            publish(new Object[]{rowData});
+        }
+    }
+
+    private static final class StopParsing extends RuntimeException {
+        StopParsing() {
+            super(null, null, false, false);
+        }
+    }
+}
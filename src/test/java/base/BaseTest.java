@@ -3,6 +3,7 @@ package base;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
@@ -10,7 +11,7 @@ import pages.HomePage;
 import pages.SearchResultsPage;
 import pages.ProductDetailsPage;
 import utils.*;
-import com.aventstack.extentreports.ExtentTest;
+import listeners.RetryAnalyzer;
 
 public class BaseTest {
     private static final Logger logger = LogManager.getLogger(BaseTest.class);
@@ -18,12 +19,15 @@ public class BaseTest {
     protected HomePage homePage;
     protected SearchResultsPage searchResultsPage;
     protected ProductDetailsPage productDetailsPage;
-    protected ExtentTest extentTest;
+    protected ReportTest extentTest;
 
     @BeforeSuite(alwaysRun = true)
     public void beforeSuite(ITestContext context) {
         logger.info("Starting test suite execution");
+        ConfigReader.initialize();
         ExtentReportManager.initReports();
+        HealedLocatorStore.getInstance();
+        WebDriverFactory.startPrewarming(context.getSuite().getXmlSuite().getThreadCount());
     }
 
     @BeforeClass(alwaysRun = true)
@@ -35,8 +39,10 @@ public class BaseTest {
     public void setUp(ITestResult result) {
         try {
             extentTest = ExtentReportManager.createTest(result.getMethod().getMethodName(), 
-                                                      result.getMethod().getDescription());
+                                                      result.getMethod().getDescription(),
+                                                      RetryAnalyzer.testKey(result));
             logger.info("Setting up test: " + result.getMethod().getMethodName());
+            RetryContext.begin(RetryAnalyzer.testKey(result));
             
             // Initialize WebDriver with smart exception handling
             ExceptionHandler.handleException(null, "initialize WebDriver", driver -> {
@@ -51,8 +57,18 @@ public class BaseTest {
             
             // Navigate to application URL with smart handling
             String baseUrl = ConfigReader.getValue("app.url", "https://www.amazon.in");
-            driver.get(baseUrl);
-            logger.info("Navigated to: " + baseUrl);
+            if (driver.getCurrentUrl().startsWith(baseUrl)) {
+                // Pre-warmed sessions are already sitting on a freshly loaded base URL
+                logger.info("Session already at: " + baseUrl);
+            } else {
+                driver.get(baseUrl);
+                logger.info("Navigated to: " + baseUrl);
+            }
+            if (ResourceBlocker.isEnabled()) {
+                // Measured once the home page has settled, so its requests are not billed to the next page
+                PageReadiness.waitUntilStable(driver, "HomePage");
+                ResourceBlocker.reportPage(driver, "HomePage");
+            }
             
             extentTest.info("Test setup completed successfully");
         } catch (Exception e) {
@@ -81,11 +97,24 @@ public class BaseTest {
             }
             
             if (driver != null) {
-                WebDriverFactory.quitDriver();
-                logger.info("WebDriver closed successfully");
+                if (result.getStatus() == ITestResult.FAILURE || result.getThrowable() instanceof WebDriverException) {
+                    // A crashed, hung or broken session must not be handed to the next test
+                    WebDriverFactory.invalidateDriver();
+                    logger.info("WebDriver discarded after failure");
+                } else {
+                    WebDriverFactory.quitDriver();
+                    logger.info("WebDriver closed successfully");
+                }
             }
         } catch (Exception e) {
             logger.error("Error in test cleanup: " + e.getMessage(), e);
+        } finally {
+            // TestNG decides on a rerun before teardown; keep the budget only for a pending rerun
+            if (!result.wasRetried()) {
+                RetryContext.complete(RetryAnalyzer.testKey(result));
+            }
+            RetryContext.end();
+            ExtentReportManager.endTest();
         }
     }
 
@@ -97,6 +126,15 @@ public class BaseTest {
     @AfterSuite(alwaysRun = true)
     public void afterSuite() {
         logger.info("Test suite execution completed");
-        ExtentReportManager.flushReports();
+        WebDriverFactory.shutdown();
+        XlsxStreamReader.closeAll();
+        PageReadiness.logSummary();
+        SmartWait.logSummary();
+        logger.info(HealedLocatorStore.getInstance().getStatsSummary());
+        logger.info(HealingCache.getInstance().getStatsSummary());
+        logger.info(TextProbe.getStatsSummary());
+        RetryMetrics.logSummary();
+        CircuitBreaker.logSummary();
+        ExtentReportManager.closeReports();
     }
 }
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.CsvRow;
+import utils.MappedCsvReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the memory-mapped CSV reader with the naive approach of reading lines with a
+ * BufferedReader, splitting on commas and filling a HashMap per row. Runs without a browser:
+ * {@code mvn test -Pbenchmark}. Timings are logged, not asserted, since they depend on the host.
+ */
+public class CsvParsingBenchmark {
+    private static final Logger logger = LogManager.getLogger(CsvParsingBenchmark.class);
+    private static final int ROWS = Integer.getInteger("benchmark.csv.rows", 500_000);
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private Path csvFile;
+
+    @BeforeClass
+    public void createDataFile() throws IOException {
+        csvFile = Files.createTempFile("csv-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write("TestCase ID,Product Name,Category,Expected Results,Price Range,Tags\n");
+            for (int i = 1; i <= ROWS; i++) {
+                writer.write("TC_" + i + ",Product " + i + "," + (i % 3 == 0 ? "Invalid" : "Electronics")
+                        + ",Should show results for product " + i + ",>" + (i * 10) + "," + (i % 2 == 0 ? "Smoke" : "Regression")
+                        + "\n");
+            }
+        }
+        logger.info("Benchmark CSV: {} rows, {} bytes", ROWS, Files.size(csvFile));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDataFile() throws IOException {
+        if (csvFile != null) {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+
+    @Test(description = "Memory-mapped flyweight rows vs BufferedReader/split/HashMap, reading two columns per row")
+    public void benchmarkTypicalAccess() throws IOException {
+        compare("two columns", 2);
+    }
+
+    @Test(description = "Memory-mapped flyweight rows vs BufferedReader/split/HashMap, reading every column")
+    public void benchmarkFullAccess() throws IOException {
+        compare("all columns", 6);
+    }
+
+    private void compare(String label, int columnsRead) throws IOException {
+        long baselineChecksum = 0;
+        long mappedChecksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            baselineChecksum = runBaseline(columnsRead);
+            mappedChecksum = runMapped(columnsRead);
+        }
+        Assert.assertEquals(mappedChecksum, baselineChecksum, "Both parsers must read the same values");
+
+        long baselineNanos = Long.MAX_VALUE;
+        long mappedNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            runBaseline(columnsRead);
+            baselineNanos = Math.min(baselineNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            runMapped(columnsRead);
+            mappedNanos = Math.min(mappedNanos, System.nanoTime() - start);
+        }
+        logger.info(String.format("CSV benchmark (%s, %d rows, best of %d): BufferedReader/split %dms (%.0f rows/sec), "
+                        + "memory-mapped %dms (%.0f rows/sec), speedup %.2fx",
+                label, ROWS, MEASURED_ROUNDS, baselineNanos / 1_000_000, ROWS / (baselineNanos / 1e9),
+                mappedNanos / 1_000_000, ROWS / (mappedNanos / 1e9), (double) baselineNanos / mappedNanos));
+    }
+
+    private long runBaseline(int columnsRead) throws IOException {
+        long checksum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String[] headers = reader.readLine().split(",");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < headers.length; i++) {
+                    row.put(headers[i], i < values.length ? values[i] : "");
+                }
+                for (int i = 0; i < columnsRead; i++) {
+                    checksum += row.get(headers[i]).length();
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private long runMapped(int columnsRead) {
+        long checksum = 0;
+        try (MappedCsvReader reader = new MappedCsvReader(csvFile)) {
+            String[] headers = reader.getHeader().toArray(new String[0]);
+            while (reader.hasNext()) {
+                CsvRow row = reader.next();
+                for (int i = 0; i < columnsRead; i++) {
+                    checksum += row.get(headers[i]).length();
+                }
+            }
+        }
+        return checksum;
+    }
+}
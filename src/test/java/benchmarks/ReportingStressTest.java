@@ -0,0 +1,163 @@
+package benchmarks;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.ConfigReader;
+import utils.ExtentReportManager;
+import utils.ReportEvent;
+import utils.ReportTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Drives the reporting facade from 32 threads at once: every thread initializes the reports and
+ * then creates, logs and ends thousands of tests. Checks that exactly one event log was opened,
+ * that every test arrives whole with its own entries, and that no thread keeps a test after it
+ * ended. Runs without a browser: {@code mvn test -Pbenchmark}.
+ */
+public class ReportingStressTest {
+    private static final Logger logger = LogManager.getLogger(ReportingStressTest.class);
+    private static final int THREADS = 32;
+    private static final int TESTS_PER_THREAD = Integer.getInteger("benchmark.report.tests", 250);
+    private static final int LOGS_PER_TEST = 8;
+
+    private Path reportDir;
+
+    @BeforeClass
+    public void redirectReports() throws IOException {
+        reportDir = Files.createTempDirectory("report-stress");
+        ConfigReader.setValue("extent.report.path", reportDir.resolve("StressReport.html").toString());
+        ConfigReader.setValue("report.events.dir", "");
+        // Small batches and backlog so both the batching and the backpressure paths are taken
+        ConfigReader.setValue("report.batch.size", "5");
+        ConfigReader.setValue("report.max.backlog", "500");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteReports() throws IOException {
+        if (reportDir != null) {
+            try (Stream<Path> files = Files.walk(reportDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test(description = "Thousands of tests reported from 32 threads arrive whole and in order")
+    public void reportFromManyThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        ConcurrentLinkedQueue<String> leaks = new ConcurrentLinkedQueue<>();
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            workers.add(pool.submit(() -> {
+                ready.countDown();
+                ready.await();
+                ExtentReportManager.initReports();
+                for (int i = 0; i < TESTS_PER_THREAD; i++) {
+                    String name = "t" + thread + "-" + i;
+                    ReportTest test = ExtentReportManager.createTest(name, "stress", name);
+                    for (int step = 0; step < LOGS_PER_TEST; step++) {
+                        test.info(name + " step " + step);
+                    }
+                    if (i % 10 == 0) {
+                        test.fail(new IllegalStateException(name));
+                    } else {
+                        test.pass(name);
+                    }
+                    ExtentReportManager.endTest();
+                    if (ExtentReportManager.getTest() != null) {
+                        leaks.add(name);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        long reportedNanos = System.nanoTime() - start;
+        ExtentReportManager.closeReports();
+        logger.info(String.format("Reported %d tests from %d threads in %.0fms", THREADS * TESTS_PER_THREAD, THREADS,
+                reportedNanos / 1e6));
+
+        Assert.assertTrue(leaks.isEmpty(), "Tests still bound to their thread after endTest: " + leaks);
+        List<Path> logs;
+        try (Stream<Path> files = Files.list(reportDir)) {
+            logs = files.filter(file -> file.getFileName().toString().endsWith(".jsonl")).collect(Collectors.toList());
+        }
+        Assert.assertEquals(logs.size(), 1, "Concurrent initReports must open a single event log: " + logs);
+        verifyLog(logs.get(0));
+        String html = new String(Files.readAllBytes(reportDir.resolve("StressReport.html")), StandardCharsets.UTF_8);
+        Assert.assertTrue(html.contains("<span>Tests <b>" + THREADS * TESTS_PER_THREAD + "</b>"), "Summary must count every test");
+    }
+
+    /**
+     * Every test must have one START, its own log entries in order and one END, in that order.
+     */
+    private void verifyLog(Path log) throws IOException {
+        Map<String, String> names = new HashMap<>();
+        Map<String, Integer> steps = new HashMap<>();
+        int runs = 0;
+        int ended = 0;
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ReportEvent event = ReportEvent.fromJson(line);
+                String id = event.get(ReportEvent.TEST);
+                switch (event.getType()) {
+                    case RUN:
+                        runs++;
+                        break;
+                    case START:
+                        Assert.assertNull(names.put(id, event.get(ReportEvent.NAME)), "Duplicate test id " + id);
+                        steps.put(id, 0);
+                        break;
+                    case LOG:
+                        String name = names.get(id);
+                        Assert.assertNotNull(name, "Log entry before its test started: " + line);
+                        int step = steps.get(id);
+                        if (step < LOGS_PER_TEST) {
+                            Assert.assertEquals(event.get(ReportEvent.MESSAGE), name + " step " + step, "Entry out of order");
+                        }
+                        steps.put(id, step + 1);
+                        break;
+                    case END:
+                        Assert.assertEquals((int) steps.remove(id), LOGS_PER_TEST + 1, "Entries lost for " + names.get(id));
+                        ended++;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        Assert.assertEquals(runs, 1, "One RUN event expected");
+        Assert.assertEquals(names.size(), THREADS * TESTS_PER_THREAD, "Every test must be started once");
+        Assert.assertEquals(ended, THREADS * TESTS_PER_THREAD, "Every test must be ended once");
+    }
+}
@@ -0,0 +1,164 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State machine checks for {@link CircuitBreaker}: sliding window, failure threshold,
+ * half-open single probe and reset. Runs without a browser: {@code mvn test -Pbenchmark}.
+ */
+public class CircuitBreakerTest {
+    private static final int WINDOW = 10;
+    private static final int MIN_CALLS = 4;
+    private static final int FAILURE_RATE = 50;
+    private static final long OPEN_SECONDS = 1;
+
+    private static CircuitBreaker newBreaker() {
+        return new CircuitBreaker("test", WINDOW, MIN_CALLS, FAILURE_RATE, OPEN_SECONDS);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failed) {
+        breaker.acquirePermission();
+        if (failed) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private static void open(CircuitBreaker breaker) {
+        for (int i = 0; i < MIN_CALLS; i++) {
+            call(breaker, true);
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    private static void waitOutOpenPeriod() throws InterruptedException {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(OPEN_SECONDS) + 100);
+    }
+
+    @Test(description = "Failures below the minimum number of calls do not open the breaker")
+    public void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < MIN_CALLS - 1; i++) {
+            call(breaker, true);
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test(description = "Reaching the failure rate opens the breaker and calls fail fast")
+    public void opensAtFailureRate() {
+        CircuitBreaker breaker = newBreaker();
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "1 of 3 is below the minimum and the rate");
+        call(breaker, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "2 of 4 reaches 50%");
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquirePermission);
+    }
+
+    @Test(description = "The failure rate covers only the last window-size calls")
+    public void failureRateUsesSlidingWindow() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 6; i++) {
+            call(breaker, false);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "4 of 10 is below 50%");
+        // The oldest success slides out: 5 of the last 10 failed, although only 5 of all 11 did
+        call(breaker, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    @Test(description = "closed -> open -> half-open -> closed, with a fresh window after closing")
+    public void successfulProbeClosesBreaker() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker();
+        open(breaker);
+        waitOutOpenPeriod();
+
+        breaker.acquirePermission();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquirePermission);
+        breaker.onSuccess();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+
+        // Earlier failures are gone: one new failure is below the minimum number of calls
+        call(breaker, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test(description = "A failed probe re-opens the breaker for another open period")
+    public void failedProbeReopensBreaker() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker();
+        open(breaker);
+        waitOutOpenPeriod();
+
+        breaker.acquirePermission();
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquirePermission);
+    }
+
+    @Test(description = "An ignored probe frees the slot for the next probe without closing the breaker")
+    public void ignoredProbeAllowsAnotherProbe() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker();
+        open(breaker);
+        waitOutOpenPeriod();
+
+        breaker.acquirePermission();
+        breaker.onIgnored();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        breaker.acquirePermission();
+        breaker.onSuccess();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test(description = "Of many threads arriving once the open period is over, exactly one gets to probe")
+    public void halfOpenLetsExactlyOneProbeThrough() throws Exception {
+        CircuitBreaker breaker = newBreaker();
+        open(breaker);
+        waitOutOpenPeriod();
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger permitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        breaker.acquirePermission();
+                        permitted.incrementAndGet();
+                    } catch (CircuitBreaker.OpenException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(permitted.get(), 1, "Only one probe may be in flight");
+        Assert.assertEquals(rejected.get(), threads - 1);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+    }
+}
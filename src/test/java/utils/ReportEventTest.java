@@ -0,0 +1,56 @@
+package utils;
+
+import constants.FrameworkException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Round trips of the report event log line format, including the characters that would break
+ * a line-per-event log, and the torn lines a killed worker leaves behind. Runs without a
+ * browser: {@code mvn test -Pbenchmark}.
+ */
+public class ReportEventTest {
+
+    @Test(description = "Quotes, backslashes, control characters and line separators survive on one line")
+    public void roundTripsSpecialCharacters() {
+        String message = "say \"hi\" \\ C:\\temp\n\r\t\u0000\u001f \u2028\u2029 \u00e9\u4e2d \ud83d\ude00";
+        ReportEvent event = ReportEvent.of(ReportEvent.Type.LOG, 1234567890123L,
+                ReportEvent.TEST, "42",
+                ReportEvent.MESSAGE, message);
+
+        String line = event.toJson();
+        // Readers split the log with BufferedReader.readLine, which breaks only on CR and LF
+        Assert.assertFalse(line.contains("\n") || line.contains("\r"), "An event must stay on one line: " + line);
+
+        ReportEvent parsed = ReportEvent.fromJson(line);
+        Assert.assertEquals(parsed.getType(), ReportEvent.Type.LOG);
+        Assert.assertEquals(parsed.getTimestamp(), 1234567890123L);
+        Assert.assertEquals(parsed.get(ReportEvent.TEST), "42");
+        Assert.assertEquals(parsed.get(ReportEvent.MESSAGE), message);
+        Assert.assertEquals(parsed.getFields(), event.getFields());
+    }
+
+    @Test(description = "Null values are left out rather than written as text")
+    public void leavesOutNullFields() {
+        ReportEvent parsed = ReportEvent.fromJson(ReportEvent.of(ReportEvent.Type.START, 1L,
+                ReportEvent.NAME, "test", ReportEvent.DESCRIPTION, null).toJson());
+        Assert.assertEquals(parsed.get(ReportEvent.NAME), "test");
+        Assert.assertFalse(parsed.getFields().containsKey(ReportEvent.DESCRIPTION));
+    }
+
+    @Test(description = "Torn and malformed lines raise FrameworkException so readers can skip them")
+    public void rejectsMalformedLines() {
+        String line = ReportEvent.of(ReportEvent.Type.LOG, 1L, ReportEvent.MESSAGE, "caf\u00e9").toJson();
+        String[] malformed = {
+                "{\"type\":\"log\",\"ts\":1,\"message\":\"caf\\u00",
+                "{\"type\":\"log\",\"ts\":1,\"message\":\"caf\\u00zz\"}",
+                line.substring(0, line.length() - 3),
+                "{\"ts\":1}",
+                "{\"type\":\"bogus\",\"ts\":1}",
+                "not json"
+        };
+        for (String torn : malformed) {
+            Assert.assertThrows("Accepted: " + torn, FrameworkException.class, () -> ReportEvent.fromJson(torn));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges three small shard logs laid out as CI nodes copy them back: a test that fails on one
+ * shard and is rerun on another, a screenshot recorded relative to its worker's directory,
+ * overlapping tests and a shard whose worker died mid-write. Runs without a browser:
+ * {@code mvn test -Pbenchmark}.
+ */
+public class ReportMergerTest {
+    private static final String RUN = "run-1";
+
+    private Path root;
+
+    @BeforeMethod
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("report-merge");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test(description = "Shards merge in time order with reruns counted once and screenshots resolved")
+    public void mergesShards() throws IOException {
+        Path screenshot = root.resolve("node-1/screenshots/checkout.png");
+        Files.createDirectories(screenshot.getParent());
+        Files.write(screenshot, new byte[]{1, 2, 3});
+
+        shard("node-1", null,
+                run("node-1", 1000),
+                start("1", "checkout", 1100),
+                ReportEvent.of(ReportEvent.Type.LOG, 1200, ReportEvent.TEST, "1", ReportEvent.STATUS, "fail",
+                        ReportEvent.MESSAGE, "Test Failed", ReportEvent.ATTACHMENT, "screenshots/checkout.png"),
+                end("1", "fail", 1300),
+                start("2", "search", 1400),
+                end("2", "pass", 1500),
+                ReportEvent.of(ReportEvent.Type.FINISH, 1600, "run", RUN, "shard", "node-1"));
+        // The failed test is rerun on another node
+        shard("node-2", null,
+                run("node-2", 1000),
+                start("1", "checkout", 1350),
+                end("1", "pass", 1450),
+                ReportEvent.of(ReportEvent.Type.FINISH, 1600, "run", RUN, "shard", "node-2"));
+        // Killed mid-write: the last line is torn and there is no FINISH
+        shard("node-3", "{\"type\":\"log\",\"ts\":12",
+                run("node-3", 1000),
+                start("1", "login", 1050),
+                end("1", "pass", 1150));
+
+        Path output = root.resolve("merged/MergedReport.html");
+        List<Path> shards = ReportMerger.findShards(Arrays.asList(root.resolve("node-1"), root.resolve("node-2"),
+                root.resolve("node-3/reports")));
+        Assert.assertEquals(shards.size(), 3);
+
+        int rendered = ReportMerger.merge(shards, output);
+
+        Assert.assertEquals(rendered, 4, "Every attempt is rendered");
+        String html = new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+        Assert.assertTrue(html.contains("<span>Tests <b>3</b></span>"), "A rerun test counts once");
+        Assert.assertTrue(html.contains("<span>retried attempts <b>1</b></span>"), "One retried attempt");
+        Assert.assertTrue(html.contains("class=\"fail\">fail <b>0</b>"), "The rerun's pass is the final status");
+        Assert.assertTrue(html.contains("checkout <em>(attempt 2)</em>"), "The rerun on node-2 is the second attempt");
+        Assert.assertTrue(html.contains("<a href=\"../node-1/screenshots/checkout.png\">"),
+                "The screenshot is resolved under its shard and linked relative to the merged report");
+        // login 1050-1150 overlaps checkout 1100-1300, checkout's rerun overlaps search: 500ms of tests in 400ms busy
+        Assert.assertTrue(html.contains("<span>test time <b>0.5s</b></span>"), "Test time adds up every attempt");
+        Assert.assertTrue(html.contains("<span>busy <b>0.4s</b></span>"), "Overlapping tests count once in busy time");
+        Assert.assertTrue(html.contains("unfinished"), "The killed shard has no FINISH");
+    }
+
+    /**
+     * Writes {@code <root>/<node>/reports/events-<run>-<node>.jsonl}, optionally ending in a torn line.
+     */
+    private void shard(String node, String tornLine, ReportEvent... events) throws IOException {
+        Path log = root.resolve(node).resolve("reports").resolve("events-" + RUN + "-" + node + ".jsonl");
+        Files.createDirectories(log.getParent());
+        StringBuilder lines = new StringBuilder();
+        for (ReportEvent event : events) {
+            lines.append(event.toJson()).append('\n');
+        }
+        if (tornLine != null) {
+            lines.append(tornLine);
+        }
+        Files.write(log, lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReportEvent run(String shard, long timestamp) {
+        return ReportEvent.of(ReportEvent.Type.RUN, timestamp, "run", RUN, "shard", shard);
+    }
+
+    private static ReportEvent start(String test, String name, long timestamp) {
+        return ReportEvent.of(ReportEvent.Type.START, timestamp, ReportEvent.TEST, test, ReportEvent.NAME, name,
+                ReportEvent.KEY, "tests.ShopTest." + name + "[]");
+    }
+
+    private static ReportEvent end(String test, String status, long timestamp) {
+        return ReportEvent.of(ReportEvent.Type.END, timestamp, ReportEvent.TEST, test, ReportEvent.STATUS, status);
+    }
+}